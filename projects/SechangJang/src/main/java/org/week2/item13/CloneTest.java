@@ -42,5 +42,25 @@ public class CloneTest {
         originalTable.put("키1", "수정된 값");
         System.out.println("원본의 수정된 값: " + originalTable.get("키1"));
         System.out.println("복제본의 값(변경되지 않아야 함): " + clonedTable.get("키1"));
+
+        // 확장과 점진적 재해싱 확인
+        System.out.println("\n=== HashTable 확장 테스트 ===");
+        HashTable table = new HashTable();
+        int count = 1_000_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            table.put(i, "값" + i);
+        }
+        System.out.println(count + "개 put: " + (System.nanoTime() - start) / 1_000_000.0 + "ms");
+        table.put(7, "교체된 값");
+        System.out.println("같은 키 재저장 후 크기(" + count + "이어야 함): " + table.size());
+        System.out.println("교체된 값 확인: " + table.get(7));
+
+        // 재해싱 도중에 복제해도 원본과 독립적이어야 함
+        HashTable snapshot = table.clone();
+        System.out.println("remove 반환값: " + table.remove(7));
+        System.out.println("원본 containsKey(7): " + table.containsKey(7));
+        System.out.println("복제본 containsKey(7): " + snapshot.containsKey(7));
+        System.out.println("원본 크기: " + table.size() + ", 복제본 크기: " + snapshot.size());
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package org.week2.item13;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 해시 값이 모두 같은 키로 HashTable 을 공격했을 때의 조회 지연을 측정하는 실행 클래스
+ * - "Aa" 와 "BB" 는 hashCode 가 같으므로 둘을 이어 붙인 문자열은 길이가 같으면 전부 충돌합니다.
+ * - 트리 버킷을 쓰는 HashTable 과 체인만 쓰는 ConcurrentHashTable 을 비교합니다.
+ */
+public class CollisionBenchmark {
+    private static final int LOOKUPS = 100_000;
+
+    public static void main(String[] args) {
+        System.out.println("충돌 키 수 | HashTable(트리) ns/get | ConcurrentHashTable(체인) ns/get");
+        for (int bits = 8; bits <= 13; bits++) {
+            List<String> keys = collidingStrings(bits);
+            HashTable tree = new HashTable();
+            ConcurrentHashTable chain = new ConcurrentHashTable();
+            for (String key : keys) {
+                tree.put(key, key);
+                chain.put(key, key);
+            }
+            System.out.printf("%d | %.1f | %.1f%n", keys.size(),
+                    measure(tree::get, keys), measure(chain::get, keys));
+        }
+    }
+
+    // 길이 2 * bits 의 "Aa" / "BB" 조합 2^bits 개 (모두 같은 hashCode)
+    private static List<String> collidingStrings(int bits) {
+        List<String> keys = new ArrayList<>(1 << bits);
+        for (int n = 0; n < (1 << bits); n++) {
+            StringBuilder sb = new StringBuilder(bits * 2);
+            for (int b = 0; b < bits; b++)
+                sb.append((n >>> b & 1) == 0 ? "Aa" : "BB");
+            keys.add(sb.toString());
+        }
+        return keys;
+    }
+
+    private static <K> double measure(Function<K, Object> get, List<K> keys) {
+        int misses = 0;
+        for (int i = 0; i < LOOKUPS; i++) // 워밍업
+            if (get.apply(keys.get(i % keys.size())) == null) misses++;
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++)
+            if (get.apply(keys.get((i * 31) % keys.size())) == null) misses++;
+        long elapsed = System.nanoTime() - start;
+        if (misses > 0)
+            throw new AssertionError("조회 실패 " + misses + "건");
+        return (double) elapsed / LOOKUPS;
+    }
+}
@@ -0,0 +1,121 @@
+package org.week2.item13;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 전역 락으로 감싼 HashTable 과 ConcurrentHashTable 의 처리량을 비교하는 실행 클래스
+ * 읽기 90%, 쓰기 10% 비율로 1, 4, 16, 64 스레드에서 측정합니다.
+ */
+public class ConcurrentBenchmark {
+    private static final int KEY_RANGE = 100_000;
+    private static final int OPS_PER_THREAD = 500_000;
+    private static final int[] THREAD_COUNTS = {1, 4, 16, 64};
+
+    // 두 구현을 같은 코드로 측정하기 위한 최소 인터페이스
+    private interface Table {
+        Object get(Object key);
+
+        Object put(Object key, Object value);
+    }
+
+    // 기존 HashTable 을 전역 락 하나로 감싼 래퍼
+    private static class SynchronizedHashTable implements Table {
+        private final HashTable table = new HashTable();
+
+        @Override
+        public synchronized Object get(Object key) {
+            return table.get(key);
+        }
+
+        @Override
+        public synchronized Object put(Object key, Object value) {
+            return table.put(key, value);
+        }
+    }
+
+    private static class ConcurrentTable implements Table {
+        private final ConcurrentHashTable table = new ConcurrentHashTable();
+
+        @Override
+        public Object get(Object key) {
+            return table.get(key);
+        }
+
+        @Override
+        public Object put(Object key, Object value) {
+            return table.put(key, value);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        // 박싱 비용이 측정에 섞이지 않도록 키를 미리 만들어 둠
+        Integer[] keys = new Integer[KEY_RANGE];
+        for (int i = 0; i < KEY_RANGE; i++)
+            keys[i] = i;
+
+        System.out.println("스레드 | synchronized HashTable | ConcurrentHashTable (Mops/s)");
+        for (int threads : THREAD_COUNTS) {
+            double locked = measure(new SynchronizedHashTable(), keys, threads);
+            double concurrent = measure(new ConcurrentTable(), keys, threads);
+            System.out.printf("%6d | %22.2f | %.2f%n", threads, locked, concurrent);
+        }
+
+        // putIfAbsent / computeIfAbsent 원자성 확인
+        ConcurrentHashTable table = new ConcurrentHashTable();
+        int[] calls = new int[1];
+        Thread[] workers = new Thread[8];
+        for (int t = 0; t < workers.length; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    table.computeIfAbsent("공유 키", k -> {
+                        synchronized (calls) {
+                            calls[0]++;
+                        }
+                        return "값";
+                    });
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers)
+            worker.join();
+        System.out.println("\ncomputeIfAbsent 함수 호출 횟수(1이어야 함): " + calls[0]);
+        System.out.println("putIfAbsent 반환값(기존 값): " + table.putIfAbsent("공유 키", "다른 값"));
+    }
+
+    private static double measure(Table table, Integer[] keys, int threads) throws InterruptedException {
+        for (Integer key : keys)
+            table.put(key, key);
+
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                ready.countDown();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    Integer key = keys[random.nextInt(KEY_RANGE)];
+                    if (random.nextInt(10) == 0)
+                        table.put(key, key);
+                    else
+                        table.get(key);
+                }
+                done.countDown();
+            }).start();
+        }
+        ready.await();
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        return (double) threads * OPS_PER_THREAD / elapsed * 1_000;
+    }
+}
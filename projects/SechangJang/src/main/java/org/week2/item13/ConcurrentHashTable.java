@@ -0,0 +1,240 @@
+package org.week2.item13;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * 여러 스레드가 공유할 수 있는 HashTable 예제
+ * - get 은 락을 잡지 않고 volatile 버킷 읽기와 불변 체인 노드만으로 동작합니다.
+ * - put / remove 는 키가 속한 세그먼트(버킷 묶음)의 락만 잡습니다.
+ * - 노드가 불변이므로 값을 바꿀 때는 대상 노드까지의 체인 앞부분을 복사해서 새로 연결합니다.
+ */
+public class ConcurrentHashTable implements Cloneable {
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+    private static final int DEFAULT_SEGMENT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private Segment[] segments;
+    private final int segmentShift;
+
+    public ConcurrentHashTable() {
+        this(DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    public ConcurrentHashTable(int concurrencyLevel) {
+        if (concurrencyLevel <= 0)
+            throw new IllegalArgumentException("동시성 수준: " + concurrencyLevel);
+        int count = 1;
+        int bits = 0;
+        while (count < concurrencyLevel) {
+            count <<= 1;
+            bits++;
+        }
+        // 세그먼트는 섞은 해시의 상위 비트로, 버킷은 하위 비트로 골라 두 선택이 서로 독립이 되도록 함
+        this.segmentShift = 32 - bits;
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++)
+            segments[i] = new Segment(DEFAULT_SEGMENT_CAPACITY);
+    }
+
+    // 체인 노드는 불변이므로 락 없이 읽어도 반쯤 만들어진 상태를 볼 일이 없음
+    private static final class Node {
+        final Object key;
+        final int hash;
+        final Object value;
+        final Node next;
+
+        Node(Object key, int hash, Object value, Node next) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    private static final class Segment {
+        // 배열 자체의 교체(확장)는 volatile 필드로, 원소 교체는 AtomicReferenceArray 로 공개
+        volatile AtomicReferenceArray<Node> table;
+        volatile int count;
+        int threshold;
+
+        Segment(int capacity) {
+            this.table = new AtomicReferenceArray<>(capacity);
+            this.threshold = (int) (capacity * LOAD_FACTOR);
+        }
+
+        Node find(Object key, int hash) {
+            AtomicReferenceArray<Node> tab = table;
+            for (Node e = tab.get(hash & (tab.length() - 1)); e != null; e = e.next) {
+                if (e.hash == hash && e.key.equals(key))
+                    return e;
+            }
+            return null;
+        }
+
+        synchronized Object put(Object key, int hash, Object value, boolean onlyIfAbsent) {
+            AtomicReferenceArray<Node> tab = table;
+            int i = hash & (tab.length() - 1);
+            Node first = tab.get(i);
+            for (Node e = first; e != null; e = e.next) {
+                if (e.hash == hash && e.key.equals(key)) {
+                    if (!onlyIfAbsent)
+                        tab.set(i, replace(first, e, new Node(key, hash, value, e.next)));
+                    return e.value;
+                }
+            }
+            tab.set(i, new Node(key, hash, value, first));
+            if (++count > threshold)
+                grow();
+            return null;
+        }
+
+        synchronized Object computeIfAbsent(Object key, int hash, Function<Object, Object> mappingFunction) {
+            Node existing = find(key, hash);
+            if (existing != null)
+                return existing.value;
+            // 세그먼트 락 안에서 계산하므로 같은 키에 대해 함수는 한 번만 호출됨
+            Object value = mappingFunction.apply(key);
+            if (value != null)
+                put(key, hash, value, true);
+            return value;
+        }
+
+        synchronized Object remove(Object key, int hash) {
+            AtomicReferenceArray<Node> tab = table;
+            int i = hash & (tab.length() - 1);
+            Node first = tab.get(i);
+            for (Node e = first; e != null; e = e.next) {
+                if (e.hash == hash && e.key.equals(key)) {
+                    tab.set(i, replace(first, e, e.next));
+                    count--;
+                    return e.value;
+                }
+            }
+            return null;
+        }
+
+        // first 부터 target 직전까지를 복사하고 target 자리에 replacement 를 이어붙인 새 체인을 만듦
+        private static Node replace(Node first, Node target, Node replacement) {
+            int n = 0;
+            for (Node e = first; e != target; e = e.next)
+                n++;
+            Node[] prefix = new Node[n];
+            n = 0;
+            for (Node e = first; e != target; e = e.next)
+                prefix[n++] = e;
+            // 재귀 대신 뒤에서부터 다시 쌓아 긴 체인에서도 스택 오버플로가 나지 않게 함
+            Node result = replacement;
+            for (int i = prefix.length - 1; i >= 0; i--)
+                result = new Node(prefix[i].key, prefix[i].hash, prefix[i].value, result);
+            return result;
+        }
+
+        // 새 배열을 완성한 뒤 한 번에 공개하므로 확장 중에도 읽기는 이전 배열을 그대로 사용
+        private void grow() {
+            AtomicReferenceArray<Node> oldTab = table;
+            int newCapacity = oldTab.length() * 2;
+            AtomicReferenceArray<Node> newTab = new AtomicReferenceArray<>(newCapacity);
+            for (int i = 0; i < oldTab.length(); i++) {
+                for (Node e = oldTab.get(i); e != null; e = e.next) {
+                    int j = e.hash & (newCapacity - 1);
+                    newTab.set(j, new Node(e.key, e.hash, e.value, newTab.get(j)));
+                }
+            }
+            threshold = (int) (newCapacity * LOAD_FACTOR);
+            table = newTab;
+        }
+
+        synchronized Segment copy() {
+            Segment result = new Segment(table.length());
+            // 노드가 불변이므로 체인은 그대로 공유해도 됨
+            for (int i = 0; i < table.length(); i++)
+                result.table.set(i, table.get(i));
+            result.count = count;
+            result.threshold = threshold;
+            return result;
+        }
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    // 작은 정수 키처럼 상위 비트가 비어 있는 해시도 세그먼트에 고르게 퍼지도록 곱셈으로 섞은 뒤 상위 비트 사용
+    private Segment segmentFor(int hash) {
+        return segmentShift == 32 ? segments[0] : segments[(hash * 0x9E3779B9) >>> segmentShift];
+    }
+
+    public Object get(Object key) {
+        int hash = hash(key);
+        Node e = segmentFor(hash).find(key, hash);
+        return e == null ? null : e.value;
+    }
+
+    public boolean containsKey(Object key) {
+        int hash = hash(key);
+        return segmentFor(hash).find(key, hash) != null;
+    }
+
+    public Object put(Object key, Object value) {
+        if (value == null)
+            throw new NullPointerException("값");
+        int hash = hash(key);
+        return segmentFor(hash).put(key, hash, value, false);
+    }
+
+    /**
+     * 키가 없을 때만 값을 저장합니다. 이미 있으면 기존 값을 반환하고 아무것도 바꾸지 않습니다.
+     */
+    public Object putIfAbsent(Object key, Object value) {
+        if (value == null)
+            throw new NullPointerException("값");
+        int hash = hash(key);
+        return segmentFor(hash).put(key, hash, value, true);
+    }
+
+    /**
+     * 키가 없을 때만 함수로 값을 계산해 저장합니다. 계산과 저장은 원자적으로 일어납니다.
+     * 함수가 null 을 반환하면 아무것도 저장하지 않습니다.
+     */
+    public Object computeIfAbsent(Object key, Function<Object, Object> mappingFunction) {
+        int hash = hash(key);
+        Segment segment = segmentFor(hash);
+        Node e = segment.find(key, hash);
+        if (e != null)
+            return e.value; // 이미 있으면 락 없이 바로 반환
+        return segment.computeIfAbsent(key, hash, mappingFunction);
+    }
+
+    public Object remove(Object key) {
+        int hash = hash(key);
+        return segmentFor(hash).remove(key, hash);
+    }
+
+    // 동시 수정 중에는 근사값
+    public int size() {
+        int sum = 0;
+        for (Segment segment : segments)
+            sum += segment.count;
+        return sum;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public ConcurrentHashTable clone() {
+        try {
+            ConcurrentHashTable result = (ConcurrentHashTable) super.clone();
+            // 세그먼트 배열은 세그먼트마다 락을 잡고 복사
+            result.segments = new Segment[segments.length];
+            for (int i = 0; i < segments.length; i++)
+                result.segments[i] = segments[i].copy();
+            return result;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError();
+        }
+    }
+}
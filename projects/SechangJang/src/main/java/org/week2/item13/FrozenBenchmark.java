@@ -0,0 +1,81 @@
+package org.week2.item13;
+
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * HashTable 과 freeze 로 만든 FrozenHashTable 의 키당 메모리와 적중 / 실패 조회 속도를 비교하는 실행 클래스
+ * 키 객체는 두 테이블이 공유하므로 메모리에는 테이블 구조만 잡힙니다. 조회 순서는 섞어 임의 접근으로 측정합니다.
+ */
+public class FrozenBenchmark {
+    private static final int ENTRIES = 1_000_000;
+
+    public static void main(String[] args) {
+        String[] keys = new String[ENTRIES * 2];
+        for (int i = 0; i < keys.length; i++)
+            keys[i] = "키" + i;
+
+        long base = usedMemory();
+        HashTable table = new HashTable();
+        for (int i = 0; i < ENTRIES; i++)
+            table.put(keys[i], keys[i]);
+        long tableBytes = usedMemory() - base;
+
+        base = usedMemory();
+        long start = System.nanoTime();
+        FrozenHashTable frozen = table.freeze();
+        long freezeNanos = System.nanoTime() - start;
+        long frozenBytes = usedMemory() - base;
+
+        System.out.printf("freeze: %.1fms, 인덱스 %.2f 바이트/키%n", freezeNanos / 1_000_000.0, frozen.indexBytesPerKey());
+        System.out.println("구현 | 바이트/키 | 적중 get ns/op | 실패 get ns/op");
+        shuffle(keys, 0, ENTRIES);
+        shuffle(keys, ENTRIES, keys.length);
+        // JIT 워밍업을 위해 두 번 돌리고 두 번째 결과만 출력
+        for (int round = 0; round < 2; round++) {
+            boolean print = round == 1;
+            measure(print, "HashTable", tableBytes, keys, table::get);
+            measure(print, "FrozenHashTable", frozenBytes, keys, frozen::get);
+        }
+    }
+
+    // keys 앞 절반은 저장된 키, 뒤 절반은 실패 조회용
+    private static void measure(boolean print, String name, long bytes, String[] keys,
+                                Function<Object, Object> get) {
+        int hits = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ENTRIES; i++)
+            if (get.apply(keys[i]) != null) hits++;
+        long hitNanos = System.nanoTime() - start;
+
+        int misses = 0;
+        start = System.nanoTime();
+        for (int i = ENTRIES; i < keys.length; i++)
+            if (get.apply(keys[i]) == null) misses++;
+        long missNanos = System.nanoTime() - start;
+
+        if (hits != ENTRIES || misses != ENTRIES)
+            throw new AssertionError("적중 " + hits + "건, 실패 " + misses + "건");
+        if (print)
+            System.out.printf("%s | %.1f | %.1f | %.1f%n", name, (double) bytes / ENTRIES,
+                    (double) hitNanos / ENTRIES, (double) missNanos / ENTRIES);
+    }
+
+    private static void shuffle(String[] keys, int from, int to) {
+        Random random = new Random(42);
+        for (int i = to - 1; i > from; i--) {
+            int j = from + random.nextInt(i - from + 1);
+            String tmp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = tmp;
+        }
+    }
+
+    // 측정 중인 테이블은 지역 변수로 살아 있으므로 GC 후 사용량 차이가 곧 테이블 크기
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
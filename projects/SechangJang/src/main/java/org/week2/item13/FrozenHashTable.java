@@ -0,0 +1,209 @@
+package org.week2.item13;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * HashTable.freeze 로 만드는 읽기 전용 테이블. 최소 완전 해시(CHD 방식, hash-and-displace)를 사용합니다.
+ * - 키 n 개를 정확히 n 개의 슬롯에 충돌 없이 배치하므로 체인도 빈 슬롯도 없습니다.
+ * - 키를 평균 4개씩 작은 버킷으로 나누고, 버킷마다 모든 키가 빈 슬롯에 떨어지는 시드를 찾아 저장합니다.
+ *   원소가 하나뿐인 버킷은 시드 대신 남은 슬롯 위치를 음수로 바로 저장합니다.
+ * - 조회는 버킷의 시드를 읽어 슬롯 하나를 계산하고 그 키와 한 번만 비교합니다.
+ * - 키가 달라도 섞은 32비트 해시까지 같으면 시드로 나눌 수 없으므로, 그런 키는 슬롯 배열 끝에 해시 순으로
+ *   따로 두고 슬롯 비교가 실패했을 때만 이진 탐색합니다.
+ * - 불변 객체이므로 clone 을 제공하지 않습니다 (아이템 13, 17).
+ */
+public final class FrozenHashTable {
+    private static final int KEYS_PER_BUCKET = 4;
+    private static final int MAX_SEED = 1 << 24;
+
+    private final HashStrategy strategy;
+    private final int[] seeds;        // 버킷별 시드 (음수면 -슬롯-1)
+    private final Object[] slots;     // 슬롯 i 의 키는 2i, 값은 2i + 1
+    private final int perfectSlots;   // 완전 해시로 배치한 슬롯 수, 그 뒤는 해시가 겹친 키
+    private final int[] overflowHashes;
+
+    // keys 에는 strategy 기준으로 같은 키가 두 번 들어 있지 않아야 함
+    FrozenHashTable(Object[] keys, Object[] values, HashStrategy strategy) {
+        this.strategy = strategy;
+        int n = keys.length;
+        int[] hashes = new int[n];
+        for (int i = 0; i < n; i++)
+            hashes[i] = HashTable.mix(strategy.hash(keys[i]));
+
+        // 해시가 같은 키 중 하나만 완전 해시에 넣고 나머지는 보조 배열로
+        // 상위 32비트에 해시, 하위 32비트에 위치를 담아 박싱 없이 해시 순으로 정렬
+        long[] byHash = new long[n];
+        for (int i = 0; i < n; i++)
+            byHash[i] = (long) hashes[i] << 32 | i;
+        Arrays.sort(byHash);
+        int[] primary = new int[n];
+        int[] secondary = new int[n];
+        int primaryCount = 0;
+        int secondaryCount = 0;
+        for (int j = 0; j < n; j++) {
+            int i = (int) byHash[j];
+            if (j > 0 && (int) (byHash[j - 1] >>> 32) == hashes[i])
+                secondary[secondaryCount++] = i;
+            else
+                primary[primaryCount++] = i;
+        }
+        perfectSlots = primaryCount;
+        slots = new Object[n * 2];
+        overflowHashes = new int[secondaryCount];
+        for (int j = 0; j < secondaryCount; j++) {
+            int i = secondary[j];
+            overflowHashes[j] = hashes[i];
+            slots[(primaryCount + j) * 2] = keys[i];
+            slots[(primaryCount + j) * 2 + 1] = values[i];
+        }
+
+        seeds = new int[Math.max(1, primaryCount / KEYS_PER_BUCKET)];
+        int[] slotOf = place(primary, primaryCount, hashes);
+        for (int j = 0; j < primaryCount; j++) {
+            int i = primary[j];
+            slots[slotOf[j] * 2] = keys[i];
+            slots[slotOf[j] * 2 + 1] = values[i];
+        }
+    }
+
+    // 큰 버킷부터 시드를 정해 primary[j] 가 들어갈 슬롯을 반환
+    private int[] place(int[] primary, int n, int[] hashes) {
+        int buckets = seeds.length;
+        // 버킷별로 키를 모음 (계수 정렬)
+        int[] start = new int[buckets + 1];
+        for (int j = 0; j < n; j++)
+            start[bucketOf(hashes[primary[j]], buckets) + 1]++;
+        for (int b = 0; b < buckets; b++)
+            start[b + 1] += start[b];
+        int[] members = new int[n];
+        int[] fill = Arrays.copyOf(start, buckets);
+        for (int j = 0; j < n; j++)
+            members[fill[bucketOf(hashes[primary[j]], buckets)]++] = j;
+
+        // 버킷 크기 내림차순 순서
+        int maxSize = 0;
+        for (int b = 0; b < buckets; b++)
+            maxSize = Math.max(maxSize, start[b + 1] - start[b]);
+        int[] sizeStart = new int[maxSize + 2];
+        for (int b = 0; b < buckets; b++)
+            sizeStart[maxSize - (start[b + 1] - start[b]) + 1]++;
+        for (int s = 0; s <= maxSize; s++)
+            sizeStart[s + 1] += sizeStart[s];
+        int[] order = new int[buckets];
+        for (int b = 0; b < buckets; b++)
+            order[sizeStart[maxSize - (start[b + 1] - start[b])]++] = b;
+
+        boolean[] taken = new boolean[n];
+        int[] slotOf = new int[n];
+        int[] candidate = new int[maxSize];
+        int nextFree = 0;
+        for (int b : order) {
+            int size = start[b + 1] - start[b];
+            if (size == 0)
+                break;
+            if (size == 1) {
+                // 남은 빈 슬롯에 바로 배치
+                while (taken[nextFree])
+                    nextFree++;
+                taken[nextFree] = true;
+                slotOf[members[start[b]]] = nextFree;
+                seeds[b] = -nextFree - 1;
+                continue;
+            }
+            int seed = findSeed(members, start[b], size, primary, hashes, taken, candidate, n);
+            seeds[b] = seed;
+            for (int k = 0; k < size; k++) {
+                taken[candidate[k]] = true;
+                slotOf[members[start[b] + k]] = candidate[k];
+            }
+        }
+        return slotOf;
+    }
+
+    // 버킷의 모든 키가 서로 다른 빈 슬롯에 떨어지는 시드를 찾아 candidate 에 슬롯을 채움
+    private static int findSeed(int[] members, int from, int size, int[] primary, int[] hashes,
+                                boolean[] taken, int[] candidate, int n) {
+        next:
+        for (int seed = 0; seed < MAX_SEED; seed++) {
+            for (int k = 0; k < size; k++) {
+                int slot = slotOf(hashes[primary[members[from + k]]], seed, n);
+                if (taken[slot])
+                    continue next;
+                for (int l = 0; l < k; l++) {
+                    if (candidate[l] == slot)
+                        continue next;
+                }
+                candidate[k] = slot;
+            }
+            return seed;
+        }
+        throw new IllegalStateException("완전 해시 시드를 찾지 못함");
+    }
+
+    // 상위 비트로 범위를 줄임 (나머지 연산 없이 [0, range) 로 사상)
+    private static int bucketOf(int hash, int buckets) {
+        return (int) (((hash & 0xFFFFFFFFL) * buckets) >>> 32);
+    }
+
+    private static int slotOf(int hash, int seed, int n) {
+        return (int) (((HashTable.mix(hash ^ seed * 0x9E3779B9) & 0xFFFFFFFFL) * n) >>> 32);
+    }
+
+    public Object get(Object key) {
+        int slot = find(key);
+        return slot < 0 ? null : slots[slot * 2 + 1];
+    }
+
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    // 키가 있는 슬롯을 반환하고, 없으면 -1
+    private int find(Object key) {
+        if (perfectSlots == 0)
+            return -1;
+        int hash = HashTable.mix(strategy.hash(key));
+        int seed = seeds[bucketOf(hash, seeds.length)];
+        int slot = seed < 0 ? -seed - 1 : slotOf(hash, seed, perfectSlots);
+        Object k = slots[slot * 2];
+        if (k == key || strategy.equivalent(k, key))
+            return slot;
+        return overflowHashes.length == 0 ? -1 : findOverflow(key, hash);
+    }
+
+    private int findOverflow(Object key, int hash) {
+        int i = Arrays.binarySearch(overflowHashes, hash);
+        if (i < 0)
+            return -1;
+        // 같은 해시가 여러 개일 수 있으므로 앞쪽으로 되돌아간 뒤 차례로 비교
+        while (i > 0 && overflowHashes[i - 1] == hash)
+            i--;
+        for (; i < overflowHashes.length && overflowHashes[i] == hash; i++) {
+            if (strategy.equivalent(slots[(perfectSlots + i) * 2], key))
+                return perfectSlots + i;
+        }
+        return -1;
+    }
+
+    public int size() {
+        return slots.length / 2;
+    }
+
+    public boolean isEmpty() {
+        return slots.length == 0;
+    }
+
+    public void forEach(BiConsumer<Object, Object> action) {
+        for (int i = 0; i < slots.length; i += 2)
+            action.accept(slots[i], slots[i + 1]);
+    }
+
+    /**
+     * 키당 인덱스 바이트 수 (시드 배열과 보조 해시 배열). 슬롯 배열은 키와 값 참조만 담으므로 제외합니다.
+     */
+    public double indexBytesPerKey() {
+        int size = size();
+        return size == 0 ? 0 : (seeds.length * 4.0 + overflowHashes.length * 4.0) / size;
+    }
+}
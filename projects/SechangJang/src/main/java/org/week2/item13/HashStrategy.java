@@ -0,0 +1,13 @@
+package org.week2.item13;
+
+/**
+ * HashTable 이 키의 해시와 동등성을 판단하는 방법
+ * 키를 감싼 객체(예: 대소문자를 무시하는 문자열 래퍼)를 조회마다 만들지 않고 테이블에 비교 방법을 넘겨줍니다.
+ * hash 가 돌려준 값은 HashTable 이 다시 섞으므로(finalizer) 하위 비트만 다른 해시도 버킷에 고르게 퍼집니다.
+ * equivalent 가 참인 두 키는 hash 도 같아야 합니다.
+ */
+public interface HashStrategy {
+    int hash(Object key);
+
+    boolean equivalent(Object a, Object b);
+}
@@ -1,63 +1,864 @@
 package org.week2.item13;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * 복잡한 자료구조(연결 리스트)를 포함하는 클래스의 clone 구현 예제
  * 깊은 복사의 중요성과 구현 방법을 보여줍니다.
+ * - 부하율(load factor)을 넘으면 버킷 배열을 두 배로 늘립니다.
+ * - 재해싱은 한 번에 하지 않고 연산마다 몇 개의 버킷씩 점진적으로 옮깁니다.
+ * - 한 버킷의 체인이 길어지면 균형 트리(AVL)로 바꿔 충돌이 몰려도 조회가 O(log n)을 넘지 않게 합니다.
+ *   트리는 해시, 그다음 Comparable 순서로 정렬하므로 해시까지 같은 키가 Comparable 이 아니면
+ *   (java.util.HashMap 과 마찬가지로) 그 키들 사이에서는 양쪽 서브트리를 모두 탐색합니다.
+ * - 생성자에 HashStrategy 를 넘기면 키의 hashCode / equals 대신 그 전략으로 해시와 동등성을 판단합니다.
+ *   어떤 전략이든 해시는 섞는 함수(finalizer)를 거치므로 하위 비트에 정보가 적은 해시도 고르게 퍼집니다.
+ *   기본 전략이 아니면 compareTo 가 동등성과 맞지 않을 수 있으므로 트리 버킷에서 Comparable 순서를 쓰지 않습니다.
+ * - enableMetrics 로 켜면 조회 탐사 수, 확장, clone 횟수를 기록하고 stats 로 조회할 수 있습니다.
+ *   꺼져 있을 때는 연산마다 null 검사 하나만 추가됩니다.
  */
 public class HashTable implements Cloneable {
-    private Entry[] buckets = new Entry[10];
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    private static final int REHASH_STEP = 4; // 연산 한 번에 옮길 이전 버킷 수
+    private static final int TREEIFY_THRESHOLD = 8;   // 체인이 이 길이에 이르면 트리로 변환
+    private static final int UNTREEIFY_THRESHOLD = 6; // 트리 원소가 이 수 이하로 줄면 체인으로 되돌림
+
+    private final float loadFactor;
+    private final HashStrategy strategy;
+    private Entry[] buckets;
+    private Entry[] oldBuckets;   // 점진적 재해싱 중인 이전 버킷 배열 (재해싱 중이 아니면 null)
+    private int rehashIndex;      // oldBuckets 에서 다음에 옮길 버킷 위치
+    private int size = 0;
+    private int threshold;
+    private Metrics metrics;      // 메트릭을 켜지 않았으면 null
+
+    public HashTable() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
 
-    private static class Entry {
+    public HashTable(int initialCapacity, float loadFactor) {
+        this(initialCapacity, loadFactor, StandardHashStrategy.DEFAULT);
+    }
+
+    public HashTable(HashStrategy strategy) {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR, strategy);
+    }
+
+    public HashTable(int initialCapacity, float loadFactor, HashStrategy strategy) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("초기 용량: " + initialCapacity);
+        if (!(loadFactor > 0))
+            throw new IllegalArgumentException("부하율: " + loadFactor);
+        this.loadFactor = loadFactor;
+        this.strategy = Objects.requireNonNull(strategy);
+        this.buckets = new Entry[tableSizeFor(initialCapacity)];
+        this.threshold = (int) (buckets.length * loadFactor);
+    }
+
+    // 순회 API 에서 그대로 내보낼 수 있도록 Map.Entry 를 구현
+    private static class Entry implements Map.Entry<Object, Object> {
         final Object key;
+        final int hash;
         Object value;
         Entry next;
 
-        Entry(Object key, Object value, Entry next) {
+        Entry(Object key, int hash, Object value, Entry next) {
             this.key = key;
+            this.hash = hash;
             this.value = value;
             this.next = next;
         }
 
+        @Override
+        public Object getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            Object old = this.value;
+            this.value = value;
+            return old;
+        }
+
         // 엔트리의 깊은 복사를 반복적으로 구현
         Entry deepCopy() {
             // 첫 번째 엔트리 생성
-            Entry result = new Entry(key, value, next);
+            Entry result = new Entry(key, hash, value, next);
             // 다음 엔트리들을 순회하며 복사
             for (Entry p = result; p.next != null; p = p.next) {
-                p.next = new Entry(p.next.key, p.next.value, p.next.next);
+                p.next = new Entry(p.next.key, p.next.hash, p.next.value, p.next.next);
             }
             return result;
         }
     }
 
-    public void put(Object key, Object value) {
-        int hash = Math.abs(key.hashCode() % buckets.length);
-        buckets[hash] = new Entry(key, value, buckets[hash]);
+    // 트리 버킷의 노드. 체인 버킷과 같은 Entry 로 다루기 위해 Entry 를 상속
+    private static final class TreeNode extends Entry {
+        TreeNode left;
+        TreeNode right;
+        int height = 1;
+
+        TreeNode(Object key, int hash, Object value) {
+            super(key, hash, value, null);
+        }
+    }
+
+    // 트리로 바뀐 버킷의 머리 노드. 키가 없는 표시용 Entry 이며 실제 원소는 root 아래에 있음
+    private static final class TreeBin extends Entry {
+        final HashStrategy strategy;
+        final boolean comparable; // 기본 동등성일 때만 compareTo 순서가 equals 와 맞으므로 정렬에 사용
+        TreeNode root;
+        int count;
+
+        TreeBin(HashStrategy strategy) {
+            super(null, 0, null, null);
+            this.strategy = strategy;
+            this.comparable = strategy == StandardHashStrategy.DEFAULT;
+        }
+
+        // 트리 버킷도 깊은 복사를 지원 (트리 높이는 O(log n)이므로 재귀해도 안전)
+        @Override
+        Entry deepCopy() {
+            TreeBin result = new TreeBin(strategy);
+            result.root = copyTree(root);
+            result.count = count;
+            return result;
+        }
+
+        private static TreeNode copyTree(TreeNode node) {
+            if (node == null)
+                return null;
+            TreeNode copy = new TreeNode(node.key, node.hash, node.value);
+            copy.height = node.height;
+            copy.left = copyTree(node.left);
+            copy.right = copyTree(node.right);
+            return copy;
+        }
+
+        TreeNode find(Object key, int hash) {
+            return find(root, key, hash);
+        }
+
+        private TreeNode find(TreeNode node, Object key, int hash) {
+            while (node != null) {
+                if (hash < node.hash) {
+                    node = node.left;
+                } else if (hash > node.hash) {
+                    node = node.right;
+                } else if (strategy.equivalent(node.key, key)) {
+                    return node;
+                } else {
+                    int c = comparable ? compareComparables(key, node.key) : 0;
+                    if (c < 0) {
+                        node = node.left;
+                    } else if (c > 0) {
+                        node = node.right;
+                    } else {
+                        // 해시가 같고 Comparable 로도 순서를 정할 수 없으면 양쪽 모두 탐색
+                        TreeNode found = find(node.right, key, hash);
+                        if (found != null)
+                            return found;
+                        node = node.left;
+                    }
+                }
+            }
+            return null;
+        }
+
+        // 키가 없다는 것을 확인한 뒤에만 호출
+        void insert(TreeNode node) {
+            root = insert(root, node);
+            count++;
+        }
+
+        private TreeNode insert(TreeNode parent, TreeNode node) {
+            if (parent == null)
+                return node;
+            if (order(node, parent, comparable) < 0)
+                parent.left = insert(parent.left, node);
+            else
+                parent.right = insert(parent.right, node);
+            return rebalance(parent);
+        }
+
+        void remove(TreeNode node) {
+            root = remove(root, node);
+            count--;
+        }
+
+        private TreeNode remove(TreeNode parent, TreeNode node) {
+            if (parent == null)
+                return null;
+            if (parent == node) {
+                if (parent.left == null)
+                    return parent.right;
+                if (parent.right == null)
+                    return parent.left;
+                // 오른쪽 서브트리의 최솟값 노드를 이 자리로 올림
+                TreeNode successor = parent.right;
+                while (successor.left != null)
+                    successor = successor.left;
+                successor.right = removeMin(parent.right);
+                successor.left = parent.left;
+                return rebalance(successor);
+            }
+            int c = order(node, parent, comparable);
+            if (c < 0) {
+                parent.left = remove(parent.left, node);
+            } else if (c > 0) {
+                parent.right = remove(parent.right, node);
+            } else {
+                // 순서가 같은 서로 다른 노드(식별 해시 충돌)는 양쪽 모두에서 찾음
+                TreeNode left = parent.left;
+                parent.left = remove(left, node);
+                if (parent.left == left)
+                    parent.right = remove(parent.right, node);
+            }
+            return rebalance(parent);
+        }
+
+        private static TreeNode removeMin(TreeNode node) {
+            if (node.left == null)
+                return node.right;
+            node.left = removeMin(node.left);
+            return rebalance(node);
+        }
+
+        private static int height(TreeNode node) {
+            return node == null ? 0 : node.height;
+        }
+
+        private static TreeNode rebalance(TreeNode node) {
+            int balance = height(node.left) - height(node.right);
+            if (balance > 1) {
+                if (height(node.left.left) < height(node.left.right))
+                    node.left = rotateLeft(node.left);
+                return rotateRight(node);
+            }
+            if (balance < -1) {
+                if (height(node.right.right) < height(node.right.left))
+                    node.right = rotateRight(node.right);
+                return rotateLeft(node);
+            }
+            node.height = Math.max(height(node.left), height(node.right)) + 1;
+            return node;
+        }
+
+        private static TreeNode rotateRight(TreeNode node) {
+            TreeNode pivot = node.left;
+            node.left = pivot.right;
+            pivot.right = node;
+            node.height = Math.max(height(node.left), height(node.right)) + 1;
+            pivot.height = Math.max(height(pivot.left), height(pivot.right)) + 1;
+            return pivot;
+        }
+
+        private static TreeNode rotateLeft(TreeNode node) {
+            TreeNode pivot = node.right;
+            node.right = pivot.left;
+            pivot.left = node;
+            node.height = Math.max(height(node.left), height(node.right)) + 1;
+            pivot.height = Math.max(height(pivot.left), height(pivot.right)) + 1;
+            return pivot;
+        }
+
+        // 중위 순회로 노드를 모음 (체인 복원과 재해싱에 사용)
+        void collect(TreeNode node, List<TreeNode> out) {
+            if (node == null)
+                return;
+            collect(node.left, out);
+            out.add(node);
+            collect(node.right, out);
+        }
+    }
+
+    // 해시, Comparable 순서, 클래스 이름, 식별 해시 순으로 비교하는 트리 내부의 전체 순서
+    private static int order(Entry a, Entry b, boolean comparable) {
+        int c = Integer.compare(a.hash, b.hash);
+        if (c != 0)
+            return c;
+        c = comparable ? compareComparables(a.key, b.key) : 0;
+        if (c != 0)
+            return c;
+        c = a.key.getClass().getName().compareTo(b.key.getClass().getName());
+        if (c != 0)
+            return c;
+        return Integer.compare(System.identityHashCode(a.key), System.identityHashCode(b.key));
+    }
+
+    // 두 키가 같은 클래스의 Comparable 이면 compareTo 결과를, 아니면 0을 반환
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareComparables(Object a, Object b) {
+        if (a instanceof Comparable && a.getClass() == b.getClass())
+            return ((Comparable) a).compareTo(b);
+        return 0;
+    }
+
+    // 2의 거듭제곱 크기를 쓰므로 전략이 준 해시의 모든 비트가 인덱스에 반영되도록 섞음
+    private int hash(Object key) {
+        return mix(strategy.hash(key));
+    }
+
+    // MurmurHash3 의 32비트 finalizer (비트 하나가 바뀌면 결과 비트의 절반 정도가 바뀜)
+    static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int n = 1;
+        while (n < capacity)
+            n <<= 1;
+        return n;
+    }
+
+    /**
+     * 키에 값을 저장합니다. 이미 있는 키라면 값을 교체하고 이전 값을 반환합니다.
+     */
+    public Object put(Object key, Object value) {
+        int hash = hash(key);
+        rehashStep();
+        Entry[] table = tableFor(hash);
+        int i = hash & (table.length - 1);
+        Entry e = find(table[i], key, hash);
+        if (e != null) {
+            Object old = e.value;
+            e.value = value;
+            return old;
+        }
+        // 아직 옮기지 않은 버킷이면 이전 배열에 넣어 한 키가 한 곳에만 있도록 유지
+        insert(table, i, key, hash, value);
+        if (++size > threshold)
+            grow();
+        return null;
     }
 
     public Object get(Object key) {
-        int hash = Math.abs(key.hashCode() % buckets.length);
-        for (Entry e = buckets[hash]; e != null; e = e.next) {
-            if (e.key.equals(key)) return e.value;
+        Entry e = findEntry(key);
+        return e == null ? null : e.value;
+    }
+
+    public boolean containsKey(Object key) {
+        return findEntry(key) != null;
+    }
+
+    /**
+     * 키에 해당하는 엔트리를 제거하고 값을 반환합니다. 없으면 null 을 반환합니다.
+     */
+    public Object remove(Object key) {
+        int hash = hash(key);
+        rehashStep();
+        Entry[] table = tableFor(hash);
+        int i = hash & (table.length - 1);
+        if (table[i] instanceof TreeBin) {
+            TreeBin bin = (TreeBin) table[i];
+            TreeNode node = bin.find(key, hash);
+            if (node == null)
+                return null;
+            bin.remove(node);
+            if (bin.count <= UNTREEIFY_THRESHOLD)
+                table[i] = untreeify(bin);
+            size--;
+            return node.value;
+        }
+        Entry prev = null;
+        for (Entry e = table[i]; e != null; prev = e, e = e.next) {
+            if (e.hash == hash && strategy.equivalent(e.key, key)) {
+                if (prev == null)
+                    table[i] = e.next;
+                else
+                    prev.next = e.next;
+                size--;
+                return e.value;
+            }
         }
         return null;
     }
 
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 현재 엔트리로 읽기 전용 FrozenHashTable 을 만듭니다. 이후 이 테이블을 수정해도 결과에는 반영되지 않습니다.
+     */
+    public FrozenHashTable freeze() {
+        Object[] keys = new Object[size];
+        Object[] values = new Object[size];
+        int[] n = {0};
+        forEach((key, value) -> {
+            keys[n[0]] = key;
+            values[n[0]++] = value;
+        });
+        return new FrozenHashTable(keys, values, strategy);
+    }
+
+    /**
+     * 모든 엔트리에 대해 action 을 실행합니다. 순서는 정해져 있지 않습니다.
+     */
+    public void forEach(BiConsumer<Object, Object> action) {
+        forEachIn(buckets, action);
+        if (oldBuckets != null)
+            forEachIn(oldBuckets, action);
+    }
+
+    private static void forEachIn(Entry[] table, BiConsumer<Object, Object> action) {
+        for (Entry head : table) {
+            if (head instanceof TreeBin) {
+                TreeBin bin = (TreeBin) head;
+                List<TreeNode> nodes = new ArrayList<>(bin.count);
+                bin.collect(bin.root, nodes);
+                for (TreeNode node : nodes)
+                    action.accept(node.key, node.value);
+            } else {
+                for (Entry e = head; e != null; e = e.next)
+                    action.accept(e.key, e.value);
+            }
+        }
+    }
+
+    /**
+     * 버킷 범위 단위로 나뉘는 엔트리 Spliterator 를 반환합니다.
+     * 순회하는 동안 테이블을 수정하면 안 됩니다.
+     */
+    public Spliterator<Map.Entry<Object, Object>> entrySpliterator() {
+        finishRehash(); // 배열이 하나여야 버킷 범위로 나눌 수 있음
+        return new EntrySpliterator(buckets, 0, buckets.length, size, true);
+    }
+
+    public Stream<Map.Entry<Object, Object>> stream() {
+        return StreamSupport.stream(entrySpliterator(), false);
+    }
+
+    public Stream<Map.Entry<Object, Object>> parallelStream() {
+        return StreamSupport.stream(entrySpliterator(), true);
+    }
+
+    /**
+     * ConcurrentHashMap 의 대량 연산처럼 엔트리 수가 parallelismThreshold 이상이면 병렬로 모든 키에 action 을 실행합니다.
+     */
+    public void forEachKey(long parallelismThreshold, Consumer<Object> action) {
+        StreamSupport.stream(entrySpliterator(), size >= parallelismThreshold)
+                .forEach(e -> action.accept(e.getKey()));
+    }
+
+    /**
+     * 각 엔트리를 transformer 로 변환하고 null 이 아닌 결과를 reducer 로 합칩니다. 결과가 하나도 없으면 null 을 반환합니다.
+     * 엔트리 수가 parallelismThreshold 이상이면 병렬로 실행하므로 reducer 는 결합 법칙을 만족해야 합니다.
+     */
+    public <U> U reduce(long parallelismThreshold, BiFunction<Object, Object, ? extends U> transformer,
+                        BiFunction<? super U, ? super U, ? extends U> reducer) {
+        return StreamSupport.stream(entrySpliterator(), size >= parallelismThreshold)
+                .<U>map(e -> transformer.apply(e.getKey(), e.getValue()))
+                .filter(u -> u != null)
+                .reduce((a, b) -> reducer.apply(a, b))
+                .orElse(null);
+    }
+
+    // [origin, fence) 버킷 범위를 담당하며 반으로 나눠 병렬 처리에 넘겨줌
+    private static final class EntrySpliterator implements Spliterator<Map.Entry<Object, Object>> {
+        private final Entry[] table;
+        private int index;
+        private final int fence;
+        private long estimate;
+        private boolean exact;        // 한 번도 나뉘지 않은 Spliterator 만 정확한 크기를 앎
+        private Entry current;        // 체인 버킷에서 다음에 내보낼 엔트리
+        private List<TreeNode> treeNodes;
+        private int treeIndex;
+
+        EntrySpliterator(Entry[] table, int origin, int fence, long estimate, boolean exact) {
+            this.table = table;
+            this.index = origin;
+            this.fence = fence;
+            this.estimate = estimate;
+            this.exact = exact;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Map.Entry<Object, Object>> action) {
+            while (true) {
+                if (treeNodes != null) {
+                    if (treeIndex < treeNodes.size()) {
+                        action.accept(treeNodes.get(treeIndex++));
+                        return true;
+                    }
+                    treeNodes = null;
+                } else if (current != null) {
+                    Entry e = current;
+                    current = e.next;
+                    action.accept(e);
+                    return true;
+                }
+                if (index >= fence)
+                    return false;
+                Entry head = table[index++];
+                if (head instanceof TreeBin) {
+                    TreeBin bin = (TreeBin) head;
+                    treeNodes = new ArrayList<>(bin.count);
+                    bin.collect(bin.root, treeNodes);
+                    treeIndex = 0;
+                } else {
+                    current = head;
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<Map.Entry<Object, Object>> trySplit() {
+            // 이미 버킷 안을 순회 중이면 남은 범위만 나눔
+            int lo = index;
+            int mid = (lo + fence) >>> 1;
+            if (mid <= lo || current != null || treeNodes != null)
+                return null;
+            index = mid;
+            estimate >>>= 1;
+            exact = false;
+            return new EntrySpliterator(table, lo, mid, estimate, false);
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return (exact ? SIZED : 0) | DISTINCT | NONNULL;
+        }
+    }
+
+    private Entry findEntry(Object key) {
+        int hash = hash(key);
+        rehashStep();
+        Entry head = bucketFor(hash);
+        if (metrics != null)
+            metrics.recordProbes(probes(head, key, hash));
+        return find(head, key, hash);
+    }
+
+    // 조회 한 번에 키를 비교하는 엔트리 수. 트리 버킷은 최악 경로인 트리 높이로 셈
+    private int probes(Entry head, Object key, int hash) {
+        if (head instanceof TreeBin) {
+            TreeNode root = ((TreeBin) head).root;
+            return root == null ? 0 : root.height;
+        }
+        int n = 0;
+        for (Entry e = head; e != null; e = e.next) {
+            n++;
+            if (e.hash == hash && strategy.equivalent(e.key, key))
+                break;
+        }
+        return n;
+    }
+
+    private Entry find(Entry head, Object key, int hash) {
+        if (head instanceof TreeBin)
+            return ((TreeBin) head).find(key, hash);
+        for (Entry e = head; e != null; e = e.next) {
+            if (e.hash == hash && strategy.equivalent(e.key, key))
+                return e;
+        }
+        return null;
+    }
+
+    // 키가 없다는 것을 확인한 뒤에만 호출. 체인이 임계값에 이르면 트리로 변환
+    private void insert(Entry[] table, int i, Object key, int hash, Object value) {
+        Entry head = table[i];
+        if (head instanceof TreeBin) {
+            ((TreeBin) head).insert(new TreeNode(key, hash, value));
+            return;
+        }
+        table[i] = new Entry(key, hash, value, head);
+        int length = 0;
+        for (Entry e = table[i]; e != null; e = e.next)
+            length++;
+        if (length >= TREEIFY_THRESHOLD)
+            table[i] = treeify(table[i]);
+    }
+
+    private TreeBin treeify(Entry head) {
+        TreeBin bin = new TreeBin(strategy);
+        for (Entry e = head; e != null; e = e.next)
+            bin.insert(new TreeNode(e.key, e.hash, e.value));
+        return bin;
+    }
+
+    private static Entry untreeify(TreeBin bin) {
+        List<TreeNode> nodes = new ArrayList<>(bin.count);
+        bin.collect(bin.root, nodes);
+        Entry head = null;
+        for (int j = nodes.size() - 1; j >= 0; j--) {
+            TreeNode n = nodes.get(j);
+            head = new Entry(n.key, n.hash, n.value, head);
+        }
+        return head;
+    }
+
+    // 해시가 현재 속한 배열: 아직 옮기지 않은 버킷이면 이전 배열, 아니면 새 배열
+    private Entry[] tableFor(int hash) {
+        if (oldBuckets != null && (hash & (oldBuckets.length - 1)) >= rehashIndex)
+            return oldBuckets;
+        return buckets;
+    }
+
+    private Entry bucketFor(int hash) {
+        Entry[] table = tableFor(hash);
+        return table[hash & (table.length - 1)];
+    }
+
+    private void finishRehash() {
+        while (oldBuckets != null)
+            rehashStep();
+    }
+
+    private void grow() {
+        // 이전 재해싱이 끝나지 않았다면 마저 끝낸 뒤 다시 늘림
+        finishRehash();
+        oldBuckets = buckets;
+        buckets = new Entry[oldBuckets.length * 2];
+        rehashIndex = 0;
+        threshold = (int) (buckets.length * loadFactor);
+        if (metrics != null)
+            metrics.resizes++;
+    }
+
+    // 이전 배열에서 최대 REHASH_STEP 개의 버킷을 새 배열로 옮김
+    private void rehashStep() {
+        if (oldBuckets == null)
+            return;
+        int mask = buckets.length - 1;
+        for (int n = 0; n < REHASH_STEP && rehashIndex < oldBuckets.length; n++, rehashIndex++) {
+            Entry e = oldBuckets[rehashIndex];
+            oldBuckets[rehashIndex] = null;
+            if (e instanceof TreeBin) {
+                // 트리 버킷은 원소마다 새 배열에 다시 넣으면서 필요하면 다시 트리로 만듦
+                TreeBin bin = (TreeBin) e;
+                List<TreeNode> nodes = new ArrayList<>(bin.count);
+                bin.collect(bin.root, nodes);
+                for (TreeNode node : nodes)
+                    insert(buckets, node.hash & mask, node.key, node.hash, node.value);
+                continue;
+            }
+            while (e != null) {
+                Entry next = e.next;
+                int i = e.hash & mask;
+                e.next = buckets[i];
+                buckets[i] = e;
+                e = next;
+            }
+        }
+        if (rehashIndex == oldBuckets.length)
+            oldBuckets = null;
+    }
+
     @Override
     public HashTable clone() {
         try {
             HashTable result = (HashTable) super.clone();
-            // 버킷 배열의 깊은 복사 수행
-            result.buckets = new Entry[buckets.length];
-            
-            // 각 버킷의 연결 리스트를 깊은 복사
-            for (int i = 0; i < buckets.length; i++) {
-                if (buckets[i] != null)
-                    result.buckets[i] = buckets[i].deepCopy();
+            // 버킷 배열의 깊은 복사 수행 (재해싱 중이면 이전 배열도 함께 복사)
+            result.buckets = copyBuckets(buckets);
+            if (oldBuckets != null)
+                result.oldBuckets = copyBuckets(oldBuckets);
+            // 복사본은 원본의 기록을 공유하지 않고 빈 기록에서 시작
+            if (metrics != null) {
+                metrics.clones++;
+                result.metrics = new Metrics();
             }
             return result;
         } catch (CloneNotSupportedException e) {
             throw new AssertionError();
         }
     }
-}
\ No newline at end of file
+
+    // 각 버킷의 연결 리스트를 깊은 복사
+    private static Entry[] copyBuckets(Entry[] source) {
+        Entry[] copy = new Entry[source.length];
+        for (int i = 0; i < source.length; i++) {
+            if (source[i] != null)
+                copy[i] = source[i].deepCopy();
+        }
+        return copy;
+    }
+
+    /**
+     * 조회 탐사 수, 확장, clone 횟수 기록을 켭니다. 이미 켜져 있으면 기존 기록을 유지합니다.
+     */
+    public void enableMetrics() {
+        if (metrics == null)
+            metrics = new Metrics();
+    }
+
+    /**
+     * 기록을 끄고 지금까지의 기록을 버립니다.
+     */
+    public void disableMetrics() {
+        metrics = null;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metrics != null;
+    }
+
+    /**
+     * 현재 버킷 상태와 지금까지의 기록으로 통계를 만듭니다. 체인 길이 분포는 호출 시점의 버킷을 훑어 계산합니다.
+     * 기록이 꺼져 있으면 IllegalStateException 을 던집니다.
+     */
+    public Stats stats() {
+        if (metrics == null)
+            throw new IllegalStateException("메트릭이 꺼져 있음");
+        int maxChain = 0;
+        long[] histogram = new long[TREEIFY_THRESHOLD + 1];
+        for (Entry[] table : new Entry[][]{buckets, oldBuckets}) {
+            if (table == null)
+                continue;
+            for (Entry head : table) {
+                int length = chainLength(head);
+                if (length >= histogram.length)
+                    histogram = Arrays.copyOf(histogram, Math.max(length + 1, histogram.length * 2));
+                histogram[length]++;
+                maxChain = Math.max(maxChain, length);
+            }
+        }
+        return new Stats(size, buckets.length, Arrays.copyOf(histogram, maxChain + 1),
+                metrics.gets, metrics.averageProbes(), metrics.percentileProbes(0.99),
+                metrics.resizes, metrics.clones);
+    }
+
+    private static int chainLength(Entry head) {
+        if (head instanceof TreeBin)
+            return ((TreeBin) head).count;
+        int length = 0;
+        for (Entry e = head; e != null; e = e.next)
+            length++;
+        return length;
+    }
+
+    // 켜져 있을 때만 만들어지는 기록. 탐사 수는 값별 횟수 분포로 모아 백분위를 구함
+    private static final class Metrics {
+        private static final int MAX_PROBES = 64; // 이 이상은 마지막 칸에 모음
+
+        final long[] probeCounts = new long[MAX_PROBES + 1];
+        long gets;
+        long totalProbes;
+        long resizes;
+        long clones;
+
+        void recordProbes(int probes) {
+            probeCounts[Math.min(probes, MAX_PROBES)]++;
+            totalProbes += probes;
+            gets++;
+        }
+
+        double averageProbes() {
+            return gets == 0 ? 0 : (double) totalProbes / gets;
+        }
+
+        int percentileProbes(double percentile) {
+            long rank = (long) Math.ceil(gets * percentile);
+            long seen = 0;
+            for (int probes = 0; probes < probeCounts.length; probes++) {
+                seen += probeCounts[probes];
+                if (seen >= rank && seen > 0)
+                    return probes;
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * stats 호출 시점의 통계 스냅숏
+     * - chainLengthHistogram[n]: 길이가 n 인 버킷 수 (트리 버킷은 원소 수를 길이로 셈)
+     * - 탐사 수는 get / containsKey 한 번에 키를 비교한 엔트리 수이며, 64 이상은 64로 셈
+     */
+    public static final class Stats {
+        private final int size;
+        private final int capacity;
+        private final long[] chainLengthHistogram;
+        private final long gets;
+        private final double averageProbes;
+        private final int p99Probes;
+        private final long resizes;
+        private final long clones;
+
+        private Stats(int size, int capacity, long[] chainLengthHistogram, long gets,
+                      double averageProbes, int p99Probes, long resizes, long clones) {
+            this.size = size;
+            this.capacity = capacity;
+            this.chainLengthHistogram = chainLengthHistogram;
+            this.gets = gets;
+            this.averageProbes = averageProbes;
+            this.p99Probes = p99Probes;
+            this.resizes = resizes;
+            this.clones = clones;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int capacity() {
+            return capacity;
+        }
+
+        public double loadFactor() {
+            return (double) size / capacity;
+        }
+
+        public long[] chainLengthHistogram() {
+            return chainLengthHistogram.clone();
+        }
+
+        public int maxChainLength() {
+            return chainLengthHistogram.length - 1;
+        }
+
+        public long gets() {
+            return gets;
+        }
+
+        public double averageProbes() {
+            return averageProbes;
+        }
+
+        public int p99Probes() {
+            return p99Probes;
+        }
+
+        public long resizes() {
+            return resizes;
+        }
+
+        public long clones() {
+            return clones;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("엔트리 %d, 용량 %d, 부하율 %.2f, 최대 체인 %d, 조회 %d회 (평균 탐사 %.2f, p99 %d), 확장 %d회, clone %d회",
+                    size, capacity, loadFactor(), maxChainLength(), gets, averageProbes, p99Probes, resizes, clones);
+        }
+    }
+}
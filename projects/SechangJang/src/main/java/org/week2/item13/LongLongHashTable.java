@@ -0,0 +1,169 @@
+package org.week2.item13;
+
+/**
+ * long 키와 long 값을 박싱 없이 저장하는 HashTable 예제
+ * - Entry 객체 없이 키 배열과 값 배열을 나란히 두는 개방 주소법(선형 탐사)을 사용합니다.
+ * - 키 0은 빈 칸 표시로 쓰므로 배열 밖의 별도 필드에 보관합니다.
+ * - 삭제 시 뒤따르는 원소를 당겨 채우므로 묘비(tombstone)가 남지 않습니다.
+ * - 값도 기본 타입이므로 없는 키를 조회하면 0을 반환합니다. 구분이 필요하면 containsKey 를 사용합니다.
+ */
+public class LongLongHashTable implements Cloneable {
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int threshold;
+    private int size = 0;         // 배열에 저장된 개수 (키 0 제외)
+    private boolean hasZeroKey;
+    private long zeroValue;
+
+    public LongLongHashTable() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    public LongLongHashTable(int expectedSize) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("예상 크기: " + expectedSize);
+        int capacity = 2;
+        while (capacity * LOAD_FACTOR < expectedSize)
+            capacity <<= 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    // 연속된 ID 도 테이블 전체에 흩어지도록 황금비 상수로 섞음
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    public long put(long key, long value) {
+        if (key == 0) {
+            long old = zeroValue;
+            hasZeroKey = true;
+            zeroValue = value;
+            return old;
+        }
+        int i = mix(key) & mask;
+        for (long k; (k = keys[i]) != 0; i = (i + 1) & mask) {
+            if (k == key) {
+                long old = values[i];
+                values[i] = value;
+                return old;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > threshold)
+            rehash(keys.length * 2);
+        return 0;
+    }
+
+    public long get(long key) {
+        if (key == 0)
+            return zeroValue;
+        int i = mix(key) & mask;
+        for (long k; (k = keys[i]) != 0; i = (i + 1) & mask) {
+            if (k == key)
+                return values[i];
+        }
+        return 0;
+    }
+
+    public boolean containsKey(long key) {
+        if (key == 0)
+            return hasZeroKey;
+        int i = mix(key) & mask;
+        for (long k; (k = keys[i]) != 0; i = (i + 1) & mask) {
+            if (k == key)
+                return true;
+        }
+        return false;
+    }
+
+    public long remove(long key) {
+        if (key == 0) {
+            long old = zeroValue;
+            hasZeroKey = false;
+            zeroValue = 0;
+            return old;
+        }
+        int i = mix(key) & mask;
+        for (long k; (k = keys[i]) != 0; i = (i + 1) & mask) {
+            if (k == key) {
+                long old = values[i];
+                shiftKeys(i);
+                size--;
+                return old;
+            }
+        }
+        return 0;
+    }
+
+    // 빈 칸이 된 pos 뒤쪽의 원소 중 원래 자리(slot)가 pos 이전인 것을 당겨와 탐사 경로가 끊기지 않게 함
+    private void shiftKeys(int pos) {
+        while (true) {
+            int last = pos;
+            pos = (pos + 1) & mask;
+            long k;
+            while (true) {
+                if ((k = keys[pos]) == 0) {
+                    keys[last] = 0;
+                    values[last] = 0;
+                    return;
+                }
+                int slot = mix(k) & mask;
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos)
+                    break;
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = k;
+            values[last] = values[pos];
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(newCapacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            long k = oldKeys[j];
+            if (k == 0)
+                continue;
+            int i = mix(k) & mask;
+            while (keys[i] != 0)
+                i = (i + 1) & mask;
+            keys[i] = k;
+            values[i] = oldValues[j];
+        }
+    }
+
+    public int size() {
+        return hasZeroKey ? size + 1 : size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public LongLongHashTable clone() {
+        try {
+            LongLongHashTable result = (LongLongHashTable) super.clone();
+            // 키와 값 배열의 복사본 생성 (HashTable 과 마찬가지로 값 객체 자체는 공유)
+            result.keys = keys.clone();
+            result.values = values.clone();
+            return result;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError();
+        }
+    }
+}
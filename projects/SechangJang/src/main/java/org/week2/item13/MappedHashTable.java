@@ -0,0 +1,211 @@
+package org.week2.item13;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * HashTable 을 압축된 바이너리 스냅숏 파일로 기록하고, 파일을 메모리 매핑해 바로 조회하는 읽기 전용 테이블 예제
+ * - 재시작 시 엔트리를 하나씩 put 하지 않고 파일을 매핑하자마자 조회할 수 있습니다.
+ * - 조회는 매핑된 이미지에서 직접 하므로 힙 테이블을 다시 만들지 않습니다. 필요하면 toHashTable 로 만듭니다.
+ * - 키와 값은 String 만 지원하며, 파일 하나는 매핑 한도인 2GB 를 넘을 수 없습니다.
+ *
+ * 파일 구조: [헤더][인덱스 슬롯 * 용량][레코드...]
+ * - 헤더: 매직 넘버(int), 버전(int), 엔트리 수(int), 인덱스 용량(int)
+ * - 인덱스 슬롯: 레코드 위치(int, 0이면 빈 칸), 해시(int)
+ * - 레코드: 키 길이(int), 값 길이(int), 키 UTF-8 바이트, 값 UTF-8 바이트
+ */
+public class MappedHashTable implements AutoCloseable {
+    private static final int MAGIC = 0x48544231; // "HTB1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int SLOT_SIZE = 8;
+    private static final int RECORD_HEADER = 8;
+
+    private ByteBuffer image;
+    private final int size;
+    private final int indexMask;
+
+    private MappedHashTable(ByteBuffer image) {
+        if (image.capacity() < HEADER_SIZE || image.getInt(0) != MAGIC || image.getInt(4) != VERSION)
+            throw new IllegalArgumentException("HashTable 스냅숏 파일이 아님");
+        int capacity = image.getInt(12);
+        // 헤더를 믿기 전에 인덱스가 파일 안에 다 들어 있는지 확인
+        if (capacity < 2 || Integer.bitCount(capacity) != 1
+                || (long) HEADER_SIZE + (long) capacity * SLOT_SIZE > image.capacity())
+            throw new IllegalArgumentException("손상된 스냅숏 파일: 인덱스 용량 " + capacity);
+        this.image = image;
+        this.size = image.getInt(8);
+        this.indexMask = capacity - 1;
+    }
+
+    /**
+     * 스냅숏 파일을 읽기 전용으로 매핑합니다. 실제 페이지는 조회할 때 운영체제가 필요한 만큼만 읽어 들입니다.
+     */
+    public static MappedHashTable open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("스냅숏이 2GB 를 넘음: " + channel.size());
+            // 매핑은 채널을 닫아도 유지됨
+            return new MappedHashTable(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * HashTable 의 모든 엔트리를 스냅숏 파일로 기록합니다. 키와 값이 String 이 아니면 IllegalArgumentException 을 던집니다.
+     * 같은 디렉터리의 임시 파일에 다 쓰고 디스크에 내린 뒤 원자적으로 이름을 바꾸므로,
+     * 도중에 중단되어도 이전 스냅숏은 그대로 남고 반쯤 쓴 파일이 열리는 일이 없습니다.
+     */
+    public static void write(HashTable table, Path path) throws IOException {
+        int capacity = 2;
+        while (capacity < table.size() * 2)
+            capacity <<= 1;
+        long indexEnd = HEADER_SIZE + (long) capacity * SLOT_SIZE;
+
+        // 1차 순회로 파일 크기를 정하고, 2차 순회에서 매핑한 파일에 직접 기록
+        long[] recordBytes = {0};
+        table.forEach((key, value) -> recordBytes[0] += RECORD_HEADER
+                + encode(key).length + encode(value).length);
+        long fileSize = indexEnd + recordBytes[0];
+        if (fileSize > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("스냅숏이 2GB 를 넘음: " + fileSize);
+
+        Path absolute = path.toAbsolutePath();
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName() + ".", ".tmp");
+        try {
+            writeImage(table, temp, capacity, (int) indexEnd, fileSize);
+            Files.move(temp, absolute, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void writeImage(HashTable table, Path path, int capacity, int indexEnd, long fileSize)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            out.putInt(4, VERSION).putInt(8, table.size()).putInt(12, capacity);
+            out.position(indexEnd);
+            int mask = capacity - 1;
+            table.forEach((key, value) -> {
+                byte[] k = encode(key);
+                byte[] v = encode(value);
+                int offset = out.position();
+                out.putInt(k.length).putInt(v.length).put(k).put(v);
+                int hash = hash((String) key);
+                int slot = hash & mask;
+                while (out.getInt(HEADER_SIZE + slot * SLOT_SIZE) != 0)
+                    slot = (slot + 1) & mask;
+                out.putInt(HEADER_SIZE + slot * SLOT_SIZE, offset);
+                out.putInt(HEADER_SIZE + slot * SLOT_SIZE + 4, hash);
+            });
+            // 매직 넘버는 나머지를 디스크에 내린 뒤 마지막에 씀
+            out.force();
+            out.putInt(0, MAGIC);
+            out.force();
+        }
+    }
+
+    private static byte[] encode(Object o) {
+        if (!(o instanceof String))
+            throw new IllegalArgumentException("스냅숏은 String 키와 값만 지원: " + o);
+        return ((String) o).getBytes(StandardCharsets.UTF_8);
+    }
+
+    // String.hashCode 는 명세로 고정되어 있어 다른 JVM 에서 열어도 같은 슬롯을 찾음
+    private static int hash(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    public String get(String key) {
+        ensureOpen();
+        int offset = find(key);
+        if (offset == 0)
+            return null;
+        int keyLength = image.getInt(offset);
+        byte[] value = new byte[image.getInt(offset + 4)];
+        image.get(offset + RECORD_HEADER + keyLength, value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    public boolean containsKey(String key) {
+        ensureOpen();
+        return find(key) != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // 레코드 위치를 반환하고, 없으면 0
+    private int find(String key) {
+        int hash = hash(key);
+        byte[] k = null;
+        int slot = hash & indexMask;
+        int offset;
+        while ((offset = image.getInt(HEADER_SIZE + slot * SLOT_SIZE)) != 0) {
+            if (image.getInt(HEADER_SIZE + slot * SLOT_SIZE + 4) == hash) {
+                if (k == null)
+                    k = key.getBytes(StandardCharsets.UTF_8); // 해시가 맞을 때만 인코딩
+                if (keyEquals(offset, k))
+                    return offset;
+            }
+            slot = (slot + 1) & indexMask;
+        }
+        return 0;
+    }
+
+    private boolean keyEquals(int offset, byte[] key) {
+        if (image.getInt(offset) != key.length)
+            return false;
+        int start = offset + RECORD_HEADER;
+        for (int i = 0; i < key.length; i++) {
+            if (image.get(start + i) != key[i])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * 매핑된 이미지로부터 수정 가능한 HashTable 을 만듭니다.
+     */
+    public HashTable toHashTable() {
+        ensureOpen();
+        HashTable table = new HashTable(size * 2, 0.75f);
+        for (int slot = 0; slot <= indexMask; slot++) {
+            int offset = image.getInt(HEADER_SIZE + slot * SLOT_SIZE);
+            if (offset == 0)
+                continue;
+            byte[] key = new byte[image.getInt(offset)];
+            byte[] value = new byte[image.getInt(offset + 4)];
+            image.get(offset + RECORD_HEADER, key);
+            image.get(offset + RECORD_HEADER + key.length, value);
+            table.put(new String(key, StandardCharsets.UTF_8), new String(value, StandardCharsets.UTF_8));
+        }
+        return table;
+    }
+
+    private void ensureOpen() {
+        if (image == null)
+            throw new IllegalStateException("이미 닫힌 테이블");
+    }
+
+    /**
+     * 매핑 참조를 끊습니다. 매핑 자체는 버퍼 객체가 수거될 때 해제됩니다.
+     */
+    @Override
+    public void close() {
+        image = null;
+    }
+}
@@ -0,0 +1,76 @@
+package org.week2.item13;
+
+/**
+ * HashTable 메트릭으로 해시 품질 문제를 구분해 보고, 메트릭을 켜고 끌 때의 get 비용을 비교하는 실행 클래스
+ */
+public class MetricsBenchmark {
+    private static final int ENTRIES = 1_000_000;
+
+    // hashCode 가 1,024가지 값만 내는 나쁜 키 (Comparable 이므로 몰린 버킷은 트리로 바뀜)
+    private static final class BadKey implements Comparable<BadKey> {
+        private final int id;
+
+        BadKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof BadKey && ((BadKey) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id % 1024;
+        }
+
+        @Override
+        public int compareTo(BadKey other) {
+            return Integer.compare(id, other.id);
+        }
+    }
+
+    public static void main(String[] args) {
+        HashTable good = new HashTable();
+        HashTable bad = new HashTable();
+        good.enableMetrics();
+        bad.enableMetrics();
+        BadKey[] badKeys = new BadKey[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            badKeys[i] = new BadKey(i);
+            good.put(i, i);
+            bad.put(badKeys[i], i);
+        }
+        for (int i = 0; i < ENTRIES; i++) {
+            good.get(i);
+            bad.get(badKeys[i]);
+        }
+        good.clone();
+        System.out.println("Integer 키: " + good.stats());
+        System.out.println("나쁜 해시 키: " + bad.stats());
+
+        System.out.println("메트릭 | get ns/op");
+        // JIT 워밍업을 위해 두 번 돌리고 두 번째 결과만 출력
+        for (int round = 0; round < 2; round++) {
+            good.disableMetrics();
+            double off = measure(good);
+            good.enableMetrics();
+            double on = measure(good);
+            if (round == 1) {
+                System.out.printf("꺼짐 | %.1f%n", off);
+                System.out.printf("켜짐 | %.1f%n", on);
+            }
+        }
+    }
+
+    private static double measure(HashTable table) {
+        int hits = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ENTRIES; i++)
+            if (table.get(i) != null) hits++;
+        long elapsed = System.nanoTime() - start;
+        if (hits != ENTRIES)
+            throw new AssertionError("조회 실패 " + (ENTRIES - hits) + "건");
+        return (double) elapsed / ENTRIES;
+    }
+}
@@ -0,0 +1,75 @@
+package org.week2.item13;
+
+/**
+ * 값마다 체인 노드를 만드는 멀티맵과 MultiValueHashTable 의 값당 메모리와 전체 순회 속도를 비교하는 실행 클래스
+ * 값 객체 크기가 섞이지 않도록 값은 모두 같은 객체 하나를 공유합니다.
+ */
+public class MultiValueBenchmark {
+    private static final int KEYS = 100_000;
+    private static final int VALUES_PER_KEY = 10;
+    private static final Object VALUE = "값";
+
+    // 비교 대상: 키마다 값 노드를 연결 리스트로 잇는 방식
+    private static final class Node {
+        final Object value;
+        final Node next;
+
+        Node(Object value, Node next) {
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    public static void main(String[] args) {
+        int total = KEYS * VALUES_PER_KEY;
+        System.out.println("구현 | 값당 바이트 | 순회 ns/값");
+        // JIT 워밍업을 위해 두 번 돌리고 두 번째 결과만 출력
+        for (int round = 0; round < 2; round++) {
+            boolean print = round == 1;
+
+            long base = usedMemory();
+            HashTable chained = new HashTable();
+            for (int v = 0; v < VALUES_PER_KEY; v++)
+                for (int k = 0; k < KEYS; k++)
+                    chained.put(k, new Node(VALUE, (Node) chained.get(k)));
+            long chainedBytes = usedMemory() - base;
+            int[] seen = {0};
+            long start = System.nanoTime();
+            chained.forEach((key, head) -> {
+                for (Node n = (Node) head; n != null; n = n.next)
+                    if (n.value != null) seen[0]++;
+            });
+            report(print, "값마다 노드", chainedBytes, System.nanoTime() - start, seen[0], total, chained);
+            chained = null;
+
+            base = usedMemory();
+            MultiValueHashTable multi = new MultiValueHashTable();
+            for (int v = 0; v < VALUES_PER_KEY; v++)
+                for (int k = 0; k < KEYS; k++)
+                    multi.put(k, VALUE);
+            long multiBytes = usedMemory() - base;
+            seen[0] = 0;
+            start = System.nanoTime();
+            multi.forEach((key, value) -> {
+                if (value != null) seen[0]++;
+            });
+            report(print, "MultiValueHashTable", multiBytes, System.nanoTime() - start, seen[0], total, multi);
+        }
+    }
+
+    // table 인자는 측정이 끝날 때까지 테이블이 수거되지 않도록 붙잡아 두는 용도
+    private static void report(boolean print, String name, long bytes, long nanos, int seen, int total, Object table) {
+        if (seen != total)
+            throw new AssertionError("순회한 값 " + seen + "개, 기대 " + total + "개");
+        if (print && table != null)
+            System.out.printf("%s | %.1f | %.2f%n", name, (double) bytes / total, (double) nanos / total);
+    }
+
+    // 측정 중인 테이블은 지역 변수로 살아 있으므로 GC 후 사용량 차이가 곧 테이블 크기
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,190 @@
+package org.week2.item13;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.BiConsumer;
+
+/**
+ * 키 하나에 값 여러 개를 저장하는 HashTable (멀티맵)
+ * - 값마다 체인 노드를 만들지 않고 키마다 늘어나는 배열 하나에 값을 모읍니다.
+ * - getAll 은 복사하지 않고 그 배열을 그대로 보여 주는 읽기 전용 List 를 반환합니다.
+ *   뷰는 이후의 put 을 반영하지만, 키가 지워지면 그 뒤의 put 은 새 배열에 들어가므로 예전 뷰에는 보이지 않습니다.
+ *   removeAll 로 지운 뒤에는 지우기 전의 값을, remove(key, value) 로 마지막 값을 지운 뒤에는 빈 List 를 계속 보여 줍니다.
+ * - 키의 해시와 동등성은 내부 HashTable 에 넘긴 HashStrategy 를 따릅니다.
+ */
+public class MultiValueHashTable implements Cloneable {
+    private HashTable table;
+    private long totalValues = 0;
+
+    public MultiValueHashTable() {
+        this(StandardHashStrategy.DEFAULT);
+    }
+
+    public MultiValueHashTable(HashStrategy strategy) {
+        table = new HashTable(strategy);
+    }
+
+    // 키 하나의 값 배열. 그대로 getAll 의 뷰가 되도록 읽기 전용 List 를 구현
+    private static final class Values extends AbstractList<Object> implements RandomAccess {
+        private Object[] elements;
+        private int count;
+
+        Values(int capacity) {
+            elements = new Object[capacity];
+        }
+
+        void append(Object value) {
+            if (count == elements.length)
+                elements = Arrays.copyOf(elements, count + (count >> 1) + 1);
+            elements[count++] = value;
+        }
+
+        void appendAll(Object[] values) {
+            if (count + values.length > elements.length)
+                elements = Arrays.copyOf(elements, Math.max(count + values.length, count + (count >> 1)));
+            System.arraycopy(values, 0, elements, count, values.length);
+            count += values.length;
+        }
+
+        boolean removeFirst(Object value) {
+            for (int i = 0; i < count; i++) {
+                if (value == null ? elements[i] == null : value.equals(elements[i])) {
+                    System.arraycopy(elements, i + 1, elements, i, count - i - 1);
+                    elements[--count] = null; // 다 쓴 참조 해제 (아이템 7)
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Object get(int index) {
+            if (index < 0 || index >= count)
+                throw new IndexOutOfBoundsException("인덱스: " + index + ", 크기: " + count);
+            return elements[index];
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+
+        Values copy() {
+            Values copy = new Values(0);
+            copy.elements = Arrays.copyOf(elements, count);
+            copy.count = count;
+            return copy;
+        }
+    }
+
+    /**
+     * 키에 값을 하나 덧붙입니다. 같은 값이 이미 있어도 중복으로 저장합니다.
+     */
+    public void put(Object key, Object value) {
+        valuesFor(key, 1).append(value);
+        totalValues++;
+    }
+
+    /**
+     * 키에 여러 값을 한 번에 덧붙입니다. 배열을 한 번만 늘리고 통째로 복사합니다.
+     */
+    public void putAll(Object key, Collection<?> values) {
+        if (values.isEmpty())
+            return;
+        Object[] array = values.toArray();
+        valuesFor(key, array.length).appendAll(array);
+        totalValues += array.length;
+    }
+
+    private Values valuesFor(Object key, int expected) {
+        Values values = (Values) table.get(key);
+        if (values == null) {
+            values = new Values(expected);
+            table.put(key, values);
+        }
+        return values;
+    }
+
+    /**
+     * 키의 모든 값을 복사 없이 보여 주는 읽기 전용 List 를 반환합니다. 키가 없으면 빈 List 를 반환합니다.
+     */
+    public List<Object> getAll(Object key) {
+        Values values = (Values) table.get(key);
+        return values == null ? Collections.emptyList() : values;
+    }
+
+    public int valueCount(Object key) {
+        Values values = (Values) table.get(key);
+        return values == null ? 0 : values.count;
+    }
+
+    public boolean containsKey(Object key) {
+        return table.containsKey(key);
+    }
+
+    /**
+     * 키의 값 중 처음 나오는 value 하나를 제거합니다. 마지막 값이면 키도 제거합니다.
+     * 이때 이미 받아 둔 getAll 뷰는 비어 있는 채로 남고 이후 같은 키에 put 해도 반영되지 않습니다.
+     */
+    public boolean remove(Object key, Object value) {
+        Values values = (Values) table.get(key);
+        if (values == null || !values.removeFirst(value))
+            return false;
+        if (values.count == 0)
+            table.remove(key);
+        totalValues--;
+        return true;
+    }
+
+    /**
+     * 키와 모든 값을 제거하고 제거한 값들을 반환합니다. 키가 없으면 빈 List 를 반환합니다.
+     */
+    public List<Object> removeAll(Object key) {
+        Values values = (Values) table.remove(key);
+        if (values == null)
+            return Collections.emptyList();
+        totalValues -= values.count;
+        return values;
+    }
+
+    // 키 개수
+    public int size() {
+        return table.size();
+    }
+
+    public long totalValues() {
+        return totalValues;
+    }
+
+    public boolean isEmpty() {
+        return table.isEmpty();
+    }
+
+    /**
+     * 모든 (키, 값) 쌍에 대해 action 을 실행합니다. 한 키의 값들은 넣은 순서대로 이어서 나옵니다.
+     */
+    public void forEach(BiConsumer<Object, Object> action) {
+        table.forEach((key, value) -> {
+            Values values = (Values) value;
+            for (int i = 0; i < values.count; i++)
+                action.accept(key, values.elements[i]);
+        });
+    }
+
+    @Override
+    public MultiValueHashTable clone() {
+        try {
+            MultiValueHashTable result = (MultiValueHashTable) super.clone();
+            // 내부 테이블을 복사한 뒤 값 배열도 키마다 복사해 원본과 공유하지 않게 함
+            result.table = table.clone();
+            result.table.stream().forEach(e -> e.setValue(((Values) e.getValue()).copy()));
+            return result;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.week2.item13;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * 힙 HashTable 과 OffHeapHashTable 을 채운 뒤 전체 GC 에 드는 시간과 힙 사용량을 비교하는 실행 클래스
+ * 힙 HashTable 은 엔트리 수에 비례해 GC 시간이 늘고, OffHeapHashTable 은 거의 일정해야 합니다.
+ */
+public class OffHeapBenchmark {
+    private static final int[] SIZES = {500_000, 1_000_000, 2_000_000};
+    private static final int GC_ROUNDS = 3;
+
+    public static void main(String[] args) {
+        System.out.println("엔트리 수 | 구현 | 힙 사용량(MB) | 힙 밖(MB) | 전체 GC " + GC_ROUNDS + "회(ms)");
+        for (int size : SIZES) {
+            HashTable heap = new HashTable();
+            for (int i = 0; i < size; i++)
+                heap.put("키" + i, "값" + i);
+            System.out.printf("%d | HashTable | %d | 0 | %d%n", size, usedMemory() / 1024 / 1024, gcMillis());
+            if (!"값0".equals(heap.get("키0")))
+                throw new AssertionError();
+            heap = null;
+
+            try (OffHeapHashTable offHeap = new OffHeapHashTable()) {
+                for (int i = 0; i < size; i++)
+                    offHeap.put("키" + i, "값" + i);
+                System.out.printf("%d | OffHeapHashTable | %d | %d | %d%n", size, usedMemory() / 1024 / 1024,
+                        offHeap.offHeapBytes() / 1024 / 1024, gcMillis());
+
+                // clone 은 슬랩을 통째로 복사하므로 엔트리 수가 아니라 바이트 수에 비례
+                long start = System.nanoTime();
+                OffHeapHashTable copy = offHeap.clone();
+                System.out.printf("    clone: %.1fms, 복제본 조회: %s%n",
+                        (System.nanoTime() - start) / 1_000_000.0, copy.get("키" + (size - 1)));
+                copy.close();
+            }
+        }
+    }
+
+    // 테이블이 살아있는 상태에서 전체 GC 를 여러 번 돌려 걸린 누적 시간을 잼
+    private static long gcMillis() {
+        long before = totalGcMillis();
+        for (int i = 0; i < GC_ROUNDS; i++)
+            System.gc();
+        return totalGcMillis() - before;
+    }
+
+    private static long totalGcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+            total += Math.max(0, gc.getCollectionTime());
+        return total;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
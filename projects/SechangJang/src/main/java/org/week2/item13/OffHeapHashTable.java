@@ -0,0 +1,339 @@
+package org.week2.item13;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 키와 값을 직렬화된 바이트로 힙 밖(direct ByteBuffer)에 저장하는 HashTable 예제
+ * - 엔트리가 몇 개든 힙에는 버퍼 객체 몇 개만 남으므로 GC 가 훑어야 할 객체 그래프가 늘지 않습니다.
+ * - 레코드(키 길이, 값 길이, 키 바이트, 값 바이트)는 고정 크기 슬랩에 차례로 덧붙입니다.
+ * - 인덱스도 direct 버퍼(2^20 슬롯 단위 페이지)이며 슬롯마다 레코드 주소와 해시를 담고 선형 탐사로 찾습니다.
+ * - 다 쓰면 close 로 버퍼 참조를 모두 놓아야 하며, 닫힌 뒤의 호출은 IllegalStateException 을 던집니다.
+ * - 네이티브 메모리는 놓아 준 direct 버퍼가 GC 로 수거될 때 반환됩니다 (내부 API 로 강제 해제하지 않음).
+ */
+public class OffHeapHashTable implements Cloneable, AutoCloseable {
+    private static final int DEFAULT_SLAB_SIZE = 64 * 1024 * 1024;
+    private static final int DEFAULT_INDEX_CAPACITY = 1024;
+    private static final float LOAD_FACTOR = 0.5f;
+    private static final int SLOT_SIZE = 12;          // 레코드 주소(long) + 해시(int)
+    private static final int RECORD_HEADER = 8;       // 키 길이(int) + 값 길이(int)
+    // 인덱스는 페이지 버퍼 여러 개로 나눔 (버퍼 하나는 2GB 를 넘을 수 없고 슬롯 위치 계산이 int 로 넘치지 않도록)
+    private static final int PAGE_BITS = 20;
+    private static final int PAGE_SLOTS = 1 << PAGE_BITS;
+    private static final int MAX_INDEX_CAPACITY = 1 << 30;
+
+    private final int slabSize;
+    private List<ByteBuffer> slabs = new ArrayList<>();
+    private ByteBuffer[] index;
+    private int indexMask;
+    private int size = 0;
+    private long liveBytes = 0;     // 인덱스가 가리키는 레코드의 바이트 수
+    private long usedBytes = 0;     // 슬랩에 기록된 전체 바이트 수 (교체, 삭제된 레코드 포함)
+    private boolean closed = false;
+
+    public OffHeapHashTable() {
+        this(DEFAULT_SLAB_SIZE);
+    }
+
+    public OffHeapHashTable(int slabSize) {
+        if (slabSize < RECORD_HEADER)
+            throw new IllegalArgumentException("슬랩 크기: " + slabSize);
+        this.slabSize = slabSize;
+        allocateIndex(DEFAULT_INDEX_CAPACITY);
+    }
+
+    private void allocateIndex(int capacity) {
+        int pageSlots = Math.min(capacity, PAGE_SLOTS);
+        index = new ByteBuffer[capacity / pageSlots];
+        for (int i = 0; i < index.length; i++)
+            index[i] = ByteBuffer.allocateDirect(pageSlots * SLOT_SIZE);
+        indexMask = capacity - 1;
+    }
+
+    private ByteBuffer pageOf(int slot) {
+        return index[slot >>> PAGE_BITS];
+    }
+
+    // 페이지 안에서의 바이트 위치
+    private static int slotOffset(int slot) {
+        return (slot & (PAGE_SLOTS - 1)) * SLOT_SIZE;
+    }
+
+    private static int hash(byte[] key) {
+        int h = Arrays.hashCode(key) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // 주소 0은 빈 슬롯을 뜻하므로 슬랩 번호에 1을 더해 상위 32비트에 저장
+    private static long address(int slab, int offset) {
+        return ((long) (slab + 1) << 32) | offset;
+    }
+
+    private ByteBuffer slabOf(long address) {
+        return slabs.get((int) (address >>> 32) - 1);
+    }
+
+    private static int offsetOf(long address) {
+        return (int) address;
+    }
+
+    private long slotAddress(int slot) {
+        return pageOf(slot).getLong(slotOffset(slot));
+    }
+
+    private int slotHash(int slot) {
+        return pageOf(slot).getInt(slotOffset(slot) + 8);
+    }
+
+    private void setSlot(int slot, long address, int hash) {
+        ByteBuffer page = pageOf(slot);
+        page.putLong(slotOffset(slot), address);
+        page.putInt(slotOffset(slot) + 8, hash);
+    }
+
+    private void ensureOpen() {
+        if (closed)
+            throw new IllegalStateException("이미 닫힌 테이블");
+    }
+
+    public void put(String key, String value) {
+        put(key.getBytes(StandardCharsets.UTF_8), value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String get(String key) {
+        byte[] value = get(key.getBytes(StandardCharsets.UTF_8));
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 키에 값을 저장합니다. 이미 있는 키라면 새 레코드를 덧붙이고 인덱스가 그것을 가리키게 합니다.
+     */
+    public void put(byte[] key, byte[] value) {
+        ensureOpen();
+        int hash = hash(key);
+        int slot = findSlot(key, hash);
+        long oldAddress = slotAddress(slot);
+        long address = append(key, value);
+        setSlot(slot, address, hash);
+        liveBytes += recordLength(address);
+        if (oldAddress != 0)
+            liveBytes -= recordLength(oldAddress); // 이전 레코드는 쓰레기가 되고 압축 때 사라짐
+        else if (++size > (indexMask + 1) * LOAD_FACTOR)
+            growIndex();
+        compactIfNeeded();
+    }
+
+    public byte[] get(byte[] key) {
+        ensureOpen();
+        long address = slotAddress(findSlot(key, hash(key)));
+        if (address == 0)
+            return null;
+        ByteBuffer slab = slabOf(address);
+        int offset = offsetOf(address);
+        int keyLength = slab.getInt(offset);
+        byte[] value = new byte[slab.getInt(offset + 4)];
+        slab.get(offset + RECORD_HEADER + keyLength, value);
+        return value;
+    }
+
+    public boolean containsKey(byte[] key) {
+        ensureOpen();
+        return slotAddress(findSlot(key, hash(key))) != 0;
+    }
+
+    public boolean remove(byte[] key) {
+        ensureOpen();
+        int slot = findSlot(key, hash(key));
+        long address = slotAddress(slot);
+        if (address == 0)
+            return false;
+        liveBytes -= recordLength(address);
+        shiftSlots(slot);
+        size--;
+        compactIfNeeded();
+        return true;
+    }
+
+    public int size() {
+        ensureOpen();
+        return size;
+    }
+
+    public boolean isEmpty() {
+        ensureOpen();
+        return size == 0;
+    }
+
+    // 힙 밖에 잡고 있는 바이트 수 (인덱스 + 슬랩)
+    public long offHeapBytes() {
+        ensureOpen();
+        long bytes = 0;
+        for (ByteBuffer page : index)
+            bytes += page.capacity();
+        for (ByteBuffer slab : slabs)
+            bytes += slab.capacity();
+        return bytes;
+    }
+
+    // 키가 있으면 그 슬롯을, 없으면 키가 들어갈 빈 슬롯을 반환
+    private int findSlot(byte[] key, int hash) {
+        int slot = hash & indexMask;
+        long address;
+        while ((address = slotAddress(slot)) != 0) {
+            if (slotHash(slot) == hash && keyEquals(address, key))
+                return slot;
+            slot = (slot + 1) & indexMask;
+        }
+        return slot;
+    }
+
+    private boolean keyEquals(long address, byte[] key) {
+        ByteBuffer slab = slabOf(address);
+        int offset = offsetOf(address);
+        if (slab.getInt(offset) != key.length)
+            return false;
+        int start = offset + RECORD_HEADER;
+        for (int i = 0; i < key.length; i++) {
+            if (slab.get(start + i) != key[i])
+                return false;
+        }
+        return true;
+    }
+
+    private int recordLength(long address) {
+        ByteBuffer slab = slabOf(address);
+        int offset = offsetOf(address);
+        return RECORD_HEADER + slab.getInt(offset) + slab.getInt(offset + 4);
+    }
+
+    private long append(byte[] key, byte[] value) {
+        int length = RECORD_HEADER + key.length + value.length;
+        ByteBuffer slab = slabFor(length);
+        int offset = slab.position();
+        slab.putInt(key.length).putInt(value.length).put(key).put(value);
+        usedBytes += length;
+        return address(slabs.size() - 1, offset);
+    }
+
+    // 이미 직렬화된 레코드를 힙으로 꺼내지 않고 버퍼끼리 복사
+    private long append(ByteBuffer record) {
+        int length = record.remaining();
+        ByteBuffer slab = slabFor(length);
+        int offset = slab.position();
+        slab.put(record);
+        usedBytes += length;
+        return address(slabs.size() - 1, offset);
+    }
+
+    private ByteBuffer slabFor(int length) {
+        ByteBuffer slab = slabs.isEmpty() ? null : slabs.get(slabs.size() - 1);
+        if (slab == null || slab.remaining() < length) {
+            // 슬랩보다 큰 레코드는 전용 슬랩을 따로 할당
+            slab = ByteBuffer.allocateDirect(Math.max(slabSize, length));
+            slabs.add(slab);
+        }
+        return slab;
+    }
+
+    // 선형 탐사 경로가 끊기지 않도록 빈 슬롯 뒤의 원소를 당겨 채움 (저장된 해시를 쓰므로 레코드를 읽지 않음)
+    private void shiftSlots(int pos) {
+        while (true) {
+            int last = pos;
+            pos = (pos + 1) & indexMask;
+            long address;
+            while (true) {
+                if ((address = slotAddress(pos)) == 0) {
+                    setSlot(last, 0, 0);
+                    return;
+                }
+                int home = slotHash(pos) & indexMask;
+                if (last <= pos ? last >= home || home > pos : last >= home && home > pos)
+                    break;
+                pos = (pos + 1) & indexMask;
+            }
+            setSlot(last, address, slotHash(pos));
+        }
+    }
+
+    private void growIndex() {
+        int oldCapacity = indexMask + 1;
+        if (oldCapacity == MAX_INDEX_CAPACITY)
+            throw new IllegalStateException("인덱스가 최대 용량(" + MAX_INDEX_CAPACITY + " 슬롯)에 도달함: 엔트리 " + size);
+        ByteBuffer[] oldIndex = index;
+        int oldPageSlots = oldIndex[0].capacity() / SLOT_SIZE;
+        allocateIndex(oldCapacity * 2);
+        for (ByteBuffer page : oldIndex) {
+            for (int i = 0; i < oldPageSlots; i++) {
+                long address = page.getLong(i * SLOT_SIZE);
+                if (address == 0)
+                    continue;
+                int hash = page.getInt(i * SLOT_SIZE + 8);
+                int slot = hash & indexMask;
+                while (slotAddress(slot) != 0)
+                    slot = (slot + 1) & indexMask;
+                setSlot(slot, address, hash);
+            }
+        }
+    }
+
+    // 교체, 삭제로 버려진 바이트가 슬랩 하나 이상이고 전체의 절반을 넘으면 살아있는 레코드만 새 슬랩으로 옮김
+    private void compactIfNeeded() {
+        long garbage = usedBytes - liveBytes;
+        if (garbage < slabSize || garbage * 2 < usedBytes)
+            return;
+        List<ByteBuffer> oldSlabs = slabs;
+        slabs = new ArrayList<>();
+        usedBytes = 0;
+        for (int slot = 0; slot <= indexMask; slot++) {
+            long address = slotAddress(slot);
+            if (address == 0)
+                continue;
+            ByteBuffer slab = oldSlabs.get((int) (address >>> 32) - 1);
+            int offset = offsetOf(address);
+            int length = RECORD_HEADER + slab.getInt(offset) + slab.getInt(offset + 4);
+            setSlot(slot, append(slab.slice(offset, length)), slotHash(slot));
+        }
+        // 이전 슬랩은 더 이상 참조하지 않으므로 GC 가 버퍼와 함께 네이티브 메모리를 거둠
+    }
+
+    /**
+     * 인덱스와 슬랩 버퍼의 참조를 모두 놓아 GC 가 네이티브 메모리를 거둘 수 있게 합니다.
+     * 닫은 뒤의 호출은 모두 IllegalStateException 을 던집니다.
+     */
+    @Override
+    public void close() {
+        if (closed)
+            return;
+        closed = true;
+        slabs = null;
+        index = null;
+    }
+
+    @Override
+    public OffHeapHashTable clone() {
+        ensureOpen();
+        try {
+            OffHeapHashTable result = (OffHeapHashTable) super.clone();
+            // 엔트리를 하나씩 옮기지 않고 인덱스와 슬랩을 통째로 복사
+            result.index = new ByteBuffer[index.length];
+            for (int i = 0; i < index.length; i++)
+                result.index[i] = copyOf(index[i]);
+            result.slabs = new ArrayList<>(slabs.size());
+            for (ByteBuffer slab : slabs)
+                result.slabs.add(copyOf(slab));
+            return result;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError();
+        }
+    }
+
+    private static ByteBuffer copyOf(ByteBuffer source) {
+        ByteBuffer copy = ByteBuffer.allocateDirect(source.capacity());
+        copy.put(source.duplicate().clear());
+        copy.position(source.position());
+        return copy;
+    }
+}
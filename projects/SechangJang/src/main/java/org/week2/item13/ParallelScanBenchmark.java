@@ -0,0 +1,51 @@
+package org.week2.item13;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HashTable 전체를 훑는 대량 연산을 순차 / 병렬로 실행해 시간을 비교하는 실행 클래스
+ * parallelismThreshold 가 Long.MAX_VALUE 이면 순차, 1이면 공용 ForkJoinPool 로 병렬 실행합니다.
+ */
+public class ParallelScanBenchmark {
+    private static final int ENTRIES = 2_000_000;
+
+    public static void main(String[] args) {
+        HashTable table = new HashTable();
+        for (int i = 0; i < ENTRIES; i++)
+            table.put(i, (long) i);
+        System.out.println("코어 수: " + Runtime.getRuntime().availableProcessors());
+
+        // 워밍업 후 측정
+        for (int round = 0; round < 2; round++) {
+            boolean print = round == 1;
+            measureReduce(print, "reduce 순차", table, Long.MAX_VALUE);
+            measureReduce(print, "reduce 병렬", table, 1);
+            measureForEachKey(print, "forEachKey 순차", table, Long.MAX_VALUE);
+            measureForEachKey(print, "forEachKey 병렬", table, 1);
+        }
+
+        long start = System.nanoTime();
+        long evens = table.parallelStream()
+                .map(Map.Entry::getValue)
+                .filter(v -> (Long) v % 2 == 0)
+                .count();
+        System.out.printf("parallelStream 짝수 값 개수: %d (%.1fms)%n", evens, (System.nanoTime() - start) / 1_000_000.0);
+        System.out.println("entrySpliterator 크기 추정: " + table.entrySpliterator().estimateSize());
+    }
+
+    private static void measureReduce(boolean print, String name, HashTable table, long threshold) {
+        long start = System.nanoTime();
+        Long sum = table.reduce(threshold, (k, v) -> (Long) v, Long::sum);
+        if (print)
+            System.out.printf("%s: 합계 %d (%.1fms)%n", name, sum, (System.nanoTime() - start) / 1_000_000.0);
+    }
+
+    private static void measureForEachKey(boolean print, String name, HashTable table, long threshold) {
+        LongAdder count = new LongAdder();
+        long start = System.nanoTime();
+        table.forEachKey(threshold, k -> count.increment());
+        if (print)
+            System.out.printf("%s: 키 %d개 (%.1fms)%n", name, count.sum(), (System.nanoTime() - start) / 1_000_000.0);
+    }
+}
@@ -0,0 +1,288 @@
+package org.week2.item13;
+
+/**
+ * 구조 공유(structural sharing)로 clone 을 O(1)에 수행하는 HashTable 예제
+ * 내부는 불변 노드로 이루어진 해시 배열 매핑 트라이(HAMT)이며,
+ * put / remove 는 변경되는 경로의 노드만 복사하고 나머지는 이전 버전과 공유합니다.
+ * 노드가 불변이므로 clone 은 루트 참조만 복사해도 원본과 독립적으로 동작합니다.
+ */
+public class PersistentHashTable implements Cloneable {
+    private static final int BITS = 5;             // 트라이 한 단계가 소비하는 해시 비트 수
+    private static final int MASK = (1 << BITS) - 1;
+
+    private Node root = BitmapNode.EMPTY;
+    private int size = 0;
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 키에 값을 저장합니다. 이미 있는 키라면 값을 교체하고 이전 값을 반환합니다.
+     */
+    public Object put(Object key, Object value) {
+        Change change = new Change();
+        root = root.put(new Leaf(key, hash(key), value), 0, change);
+        if (change.added)
+            size++;
+        return change.oldValue;
+    }
+
+    public Object get(Object key) {
+        Leaf leaf = root.find(key, hash(key), 0);
+        return leaf == null ? null : leaf.value;
+    }
+
+    public boolean containsKey(Object key) {
+        return root.find(key, hash(key), 0) != null;
+    }
+
+    public Object remove(Object key) {
+        Change change = new Change();
+        Node result = root.remove(key, hash(key), 0, change);
+        root = result == null ? BitmapNode.EMPTY : result;
+        if (change.removed)
+            size--;
+        return change.oldValue;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public PersistentHashTable clone() {
+        try {
+            // 노드는 불변이므로 루트 참조와 크기만 복사하면 충분 (깊은 복사 불필요)
+            return (PersistentHashTable) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError();
+        }
+    }
+
+    // put / remove 한 번의 결과를 호출자에게 돌려주기 위한 객체
+    private static class Change {
+        Object oldValue;
+        boolean added;
+        boolean removed;
+    }
+
+    private abstract static class Node {
+        abstract Leaf find(Object key, int hash, int shift);
+
+        abstract Node put(Leaf leaf, int shift, Change change);
+
+        // 노드가 비게 되면 null 을 반환
+        abstract Node remove(Object key, int hash, int shift, Change change);
+    }
+
+    // 해시가 한 곳에만 있는 노드(Leaf, CollisionNode)는 트라이 깊이와 무관하게 어디든 위치할 수 있음
+    private abstract static class SingleHashNode extends Node {
+        abstract int hash();
+    }
+
+    private static final class Leaf extends SingleHashNode {
+        final Object key;
+        final int hash;
+        final Object value;
+
+        Leaf(Object key, int hash, Object value) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+        }
+
+        @Override
+        int hash() {
+            return hash;
+        }
+
+        @Override
+        Leaf find(Object key, int hash, int shift) {
+            return this.hash == hash && this.key.equals(key) ? this : null;
+        }
+
+        @Override
+        Node put(Leaf leaf, int shift, Change change) {
+            if (leaf.hash == hash && leaf.key.equals(key)) {
+                change.oldValue = value;
+                return leaf.value == value ? this : leaf;
+            }
+            change.added = true;
+            if (leaf.hash == hash)
+                return new CollisionNode(hash, new Leaf[] { this, leaf });
+            return BitmapNode.merge(this, leaf, shift);
+        }
+
+        @Override
+        Node remove(Object key, int hash, int shift, Change change) {
+            if (find(key, hash, shift) == null)
+                return this;
+            change.oldValue = value;
+            change.removed = true;
+            return null;
+        }
+    }
+
+    // 해시 값 전체가 같은 키들을 모아두는 노드
+    private static final class CollisionNode extends SingleHashNode {
+        final int hash;
+        final Leaf[] leaves;
+
+        CollisionNode(int hash, Leaf[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        @Override
+        int hash() {
+            return hash;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].key.equals(key))
+                    return i;
+            }
+            return -1;
+        }
+
+        @Override
+        Leaf find(Object key, int hash, int shift) {
+            if (this.hash != hash)
+                return null;
+            int i = indexOf(key);
+            return i < 0 ? null : leaves[i];
+        }
+
+        @Override
+        Node put(Leaf leaf, int shift, Change change) {
+            if (leaf.hash != hash) {
+                change.added = true;
+                return BitmapNode.merge(this, leaf, shift);
+            }
+            int i = indexOf(leaf.key);
+            Leaf[] copy;
+            if (i >= 0) {
+                change.oldValue = leaves[i].value;
+                copy = leaves.clone();
+                copy[i] = leaf;
+            } else {
+                change.added = true;
+                copy = new Leaf[leaves.length + 1];
+                System.arraycopy(leaves, 0, copy, 0, leaves.length);
+                copy[leaves.length] = leaf;
+            }
+            return new CollisionNode(hash, copy);
+        }
+
+        @Override
+        Node remove(Object key, int hash, int shift, Change change) {
+            int i = this.hash == hash ? indexOf(key) : -1;
+            if (i < 0)
+                return this;
+            change.oldValue = leaves[i].value;
+            change.removed = true;
+            if (leaves.length == 2)
+                return leaves[1 - i];
+            Leaf[] copy = new Leaf[leaves.length - 1];
+            System.arraycopy(leaves, 0, copy, 0, i);
+            System.arraycopy(leaves, i + 1, copy, i, leaves.length - i - 1);
+            return new CollisionNode(hash, copy);
+        }
+    }
+
+    // 32개 자식 중 실제로 존재하는 자식만 비트맵과 압축 배열로 보관하는 노드
+    private static final class BitmapNode extends Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, new Node[0]);
+
+        final int bitmap;
+        final Node[] children;
+
+        BitmapNode(int bitmap, Node[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        private static int bit(int hash, int shift) {
+            return 1 << ((hash >>> shift) & MASK);
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        // 해시가 다른 두 노드를 shift 단계부터 갈라지는 서브트리로 합침
+        static Node merge(SingleHashNode a, SingleHashNode b, int shift) {
+            int bitA = bit(a.hash(), shift);
+            int bitB = bit(b.hash(), shift);
+            if (bitA == bitB)
+                return new BitmapNode(bitA, new Node[] { merge(a, b, shift + BITS) });
+            Node[] children = Integer.compareUnsigned(bitA, bitB) < 0
+                    ? new Node[] { a, b } : new Node[] { b, a };
+            return new BitmapNode(bitA | bitB, children);
+        }
+
+        @Override
+        Leaf find(Object key, int hash, int shift) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0)
+                return null;
+            return children[index(bit)].find(key, hash, shift + BITS);
+        }
+
+        @Override
+        Node put(Leaf leaf, int shift, Change change) {
+            int bit = bit(leaf.hash, shift);
+            int i = index(bit);
+            if ((bitmap & bit) == 0) {
+                change.added = true;
+                Node[] copy = new Node[children.length + 1];
+                System.arraycopy(children, 0, copy, 0, i);
+                copy[i] = leaf;
+                System.arraycopy(children, i, copy, i + 1, children.length - i);
+                return new BitmapNode(bitmap | bit, copy);
+            }
+            Node child = children[i];
+            Node newChild = child.put(leaf, shift + BITS, change);
+            if (newChild == child)
+                return this;
+            // 변경된 경로의 노드만 복사하고 나머지 자식은 공유
+            Node[] copy = children.clone();
+            copy[i] = newChild;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        @Override
+        Node remove(Object key, int hash, int shift, Change change) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0)
+                return this;
+            int i = index(bit);
+            Node child = children[i];
+            Node newChild = child.remove(key, hash, shift + BITS, change);
+            if (newChild == child)
+                return this;
+            if (newChild == null) {
+                if (children.length == 1)
+                    return null;
+                Node[] copy = new Node[children.length - 1];
+                System.arraycopy(children, 0, copy, 0, i);
+                System.arraycopy(children, i + 1, copy, i, children.length - i - 1);
+                if (copy.length == 1 && copy[0] instanceof SingleHashNode)
+                    return copy[0]; // 남은 자식이 하나뿐이면 위로 끌어올림
+                return new BitmapNode(bitmap & ~bit, copy);
+            }
+            if (children.length == 1 && newChild instanceof SingleHashNode)
+                return newChild;
+            Node[] copy = children.clone();
+            copy[i] = newChild;
+            return new BitmapNode(bitmap, copy);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.week2.item13;
+
+import java.util.EmptyStackException;
+
+/**
+ * 구조 공유로 clone 을 O(1)에 수행하는 Stack 예제
+ * - 내부는 불변 노드의 단일 연결 리스트(cons 리스트)이며, 맨 위 노드 참조와 크기만 필드로 가집니다.
+ * - push 는 새 노드 하나를 앞에 붙이고 pop 은 참조를 다음 노드로 옮길 뿐이라 기존 노드를 건드리지 않습니다.
+ * - 따라서 clone 은 필드만 복사해도 원본과 독립적으로 동작하며, 복사본들은 아래쪽 노드를 공유합니다.
+ * - push / pop / isEmpty 의 동작은 Stack 과 같습니다.
+ */
+public class PersistentStack implements Cloneable {
+    private Node top = null;
+    private int size = 0;
+
+    public void push(Object e) {
+        top = new Node(e, top);
+        size++;
+    }
+
+    public Object pop() {
+        if (top == null)
+            throw new EmptyStackException();
+        Object result = top.element;
+        top = top.next; // 꺼낸 노드는 다른 복사본이 쓰지 않으면 수거됨
+        size--;
+        return result;
+    }
+
+    public Object peek() {
+        if (top == null)
+            throw new EmptyStackException();
+        return top.element;
+    }
+
+    public boolean isEmpty() {
+        return top == null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * e 를 push 한 새 버전을 반환합니다. 이 스택은 바뀌지 않습니다.
+     */
+    public PersistentStack with(Object e) {
+        PersistentStack result = clone();
+        result.push(e);
+        return result;
+    }
+
+    @Override
+    public PersistentStack clone() {
+        try {
+            // 노드는 불변이므로 맨 위 참조와 크기만 복사하면 충분 (깊은 복사 불필요)
+            return (PersistentStack) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError();
+        }
+    }
+
+    private static final class Node {
+        final Object element;
+        final Node next;
+
+        Node(Object element, Node next) {
+            this.element = element;
+            this.next = next;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.week2.item13;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 편집마다 되돌리기 스택의 스냅숏을 남기는 상황에서 Stack 과 PersistentStack 을 비교하는 실행 클래스
+ * - 깊이에 따른 clone 한 번의 비용
+ * - 스냅숏 10,000개를 살려둔 상태에서 점유하는 힙 메모리
+ */
+public class PersistentStackBenchmark {
+    private static final int SNAPSHOTS = 10_000;
+    private static final Object VALUE = "편집";
+    private static final Object[] SINK = new Object[16];
+
+    public static void main(String[] args) {
+        // 처음 1,000개를 쌓아 둔 뒤 편집 한 번마다 스냅숏을 찍고 push (되돌리기 이력 흉내)
+        int initial = 1_000;
+        System.out.println("=== 살아있는 스냅숏 " + SNAPSHOTS + "개의 메모리 (처음 깊이 " + initial + ") ===");
+        long base = usedMemory();
+        PersistentStack persistent = new PersistentStack();
+        for (int i = 0; i < initial; i++)
+            persistent.push(VALUE);
+        List<PersistentStack> sharedSnapshots = new ArrayList<>(SNAPSHOTS);
+        for (int i = 0; i < SNAPSHOTS; i++) {
+            sharedSnapshots.add(persistent.clone());
+            persistent.push(i);
+        }
+        long sharedBytes = usedMemory() - base;
+        System.out.println("PersistentStack: " + sharedBytes / 1024 + "KB (" + sharedSnapshots.size() + "개)");
+
+        base = usedMemory();
+        Stack stack = new Stack();
+        for (int i = 0; i < initial; i++)
+            stack.push(VALUE);
+        List<Stack> deepSnapshots = new ArrayList<>(SNAPSHOTS);
+        for (int i = 0; i < SNAPSHOTS; i++) {
+            deepSnapshots.add(stack.clone());
+            stack.push(i);
+        }
+        long deepBytes = usedMemory() - base;
+        System.out.println("Stack: " + deepBytes / 1024 + "KB (" + deepSnapshots.size() + "개)");
+
+        // 스냅숏이 이후 push 의 영향을 받지 않는지 확인
+        System.out.println("첫 스냅숏의 맨 위(편집이어야 함): " + sharedSnapshots.get(0).pop());
+        System.out.println("깊은 복사 스냅숏의 맨 위(편집이어야 함): " + deepSnapshots.get(0).pop());
+        System.out.println("현재 원본의 맨 위: " + persistent.pop());
+
+        System.out.println("\n=== clone 비용 ===");
+        System.out.println("깊이 | Stack ns/clone | PersistentStack ns/clone");
+        for (int depth = 10; depth <= 100_000; depth *= 10) {
+            Stack deep = new Stack();
+            PersistentStack shared = new PersistentStack();
+            for (int i = 0; i < depth; i++) {
+                deep.push(VALUE);
+                shared.push(VALUE);
+            }
+            System.out.printf("%d | %.1f | %.1f%n", depth, measureClone(deep::clone), measureClone(shared::clone));
+        }
+    }
+
+    // clone 결과를 정적 배열에 남겨 객체가 메서드 밖으로 나가게 하므로 JIT 가 할당을 지우지 못함
+    private static double measureClone(Supplier<Object> clone) {
+        for (int i = 0; i < 2_000; i++)
+            SINK[i & (SINK.length - 1)] = clone.get();
+        int iterations = 2_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++)
+            SINK[i & (SINK.length - 1)] = clone.get();
+        long elapsed = System.nanoTime() - start;
+        if (SINK[0] == null)
+            throw new AssertionError();
+        return (double) elapsed / iterations;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,132 @@
+package org.week2.item13;
+
+/**
+ * 박싱하는 HashTable 과 기본 타입 전용 HashTable 의 엔트리당 메모리와 put / get 속도를 비교하는 실행 클래스
+ * 값 객체 크기가 섞이지 않도록 Object 값은 모두 같은 객체 하나를 공유합니다.
+ */
+public class PrimitiveBenchmark {
+    private static final int ENTRIES = 1_000_000;
+    private static final Object VALUE = "값";
+
+    public static void main(String[] args) {
+        System.out.println("구현 | 엔트리당 바이트 | put ns/op | get ns/op");
+        // JIT 워밍업을 위해 두 번 돌리고 두 번째 결과만 출력
+        for (int round = 0; round < 2; round++) {
+            boolean print = round == 1;
+            boxedInt(print);
+            intObject(print);
+            intInt(print);
+            boxedLong(print);
+            longObject(print);
+            longLong(print);
+        }
+    }
+
+    private static void boxedInt(boolean print) {
+        long base = usedMemory();
+        long start = System.nanoTime();
+        HashTable table = new HashTable();
+        for (int i = 1; i <= ENTRIES; i++)
+            table.put(i, VALUE);
+        long putTime = System.nanoTime() - start;
+        long bytes = usedMemory() - base;
+        start = System.nanoTime();
+        int hits = 0;
+        for (int i = 1; i <= ENTRIES; i++)
+            if (table.get(i) != null) hits++;
+        report(print, "HashTable(Integer 키)", bytes, putTime, System.nanoTime() - start, hits, table);
+    }
+
+    private static void intObject(boolean print) {
+        long base = usedMemory();
+        long start = System.nanoTime();
+        IntObjectHashTable table = new IntObjectHashTable();
+        for (int i = 1; i <= ENTRIES; i++)
+            table.put(i, VALUE);
+        long putTime = System.nanoTime() - start;
+        long bytes = usedMemory() - base;
+        start = System.nanoTime();
+        int hits = 0;
+        for (int i = 1; i <= ENTRIES; i++)
+            if (table.get(i) != null) hits++;
+        report(print, "IntObjectHashTable", bytes, putTime, System.nanoTime() - start, hits, table);
+    }
+
+    private static void intInt(boolean print) {
+        long base = usedMemory();
+        long start = System.nanoTime();
+        IntIntHashTable table = new IntIntHashTable();
+        for (int i = 1; i <= ENTRIES; i++)
+            table.put(i, i);
+        long putTime = System.nanoTime() - start;
+        long bytes = usedMemory() - base;
+        start = System.nanoTime();
+        int hits = 0;
+        for (int i = 1; i <= ENTRIES; i++)
+            if (table.get(i) == i) hits++;
+        report(print, "IntIntHashTable", bytes, putTime, System.nanoTime() - start, hits, table);
+    }
+
+    private static void boxedLong(boolean print) {
+        long base = usedMemory();
+        long start = System.nanoTime();
+        HashTable table = new HashTable();
+        for (long i = 1; i <= ENTRIES; i++)
+            table.put(i, VALUE);
+        long putTime = System.nanoTime() - start;
+        long bytes = usedMemory() - base;
+        start = System.nanoTime();
+        int hits = 0;
+        for (long i = 1; i <= ENTRIES; i++)
+            if (table.get(i) != null) hits++;
+        report(print, "HashTable(Long 키)", bytes, putTime, System.nanoTime() - start, hits, table);
+    }
+
+    private static void longObject(boolean print) {
+        long base = usedMemory();
+        long start = System.nanoTime();
+        LongObjectHashTable table = new LongObjectHashTable();
+        for (long i = 1; i <= ENTRIES; i++)
+            table.put(i, VALUE);
+        long putTime = System.nanoTime() - start;
+        long bytes = usedMemory() - base;
+        start = System.nanoTime();
+        int hits = 0;
+        for (long i = 1; i <= ENTRIES; i++)
+            if (table.get(i) != null) hits++;
+        report(print, "LongObjectHashTable", bytes, putTime, System.nanoTime() - start, hits, table);
+    }
+
+    private static void longLong(boolean print) {
+        long base = usedMemory();
+        long start = System.nanoTime();
+        LongLongHashTable table = new LongLongHashTable();
+        for (long i = 1; i <= ENTRIES; i++)
+            table.put(i, i);
+        long putTime = System.nanoTime() - start;
+        long bytes = usedMemory() - base;
+        start = System.nanoTime();
+        int hits = 0;
+        for (long i = 1; i <= ENTRIES; i++)
+            if (table.get(i) == i) hits++;
+        report(print, "LongLongHashTable", bytes, putTime, System.nanoTime() - start, hits, table);
+    }
+
+    // table 인자는 측정이 끝날 때까지 테이블이 수거되지 않도록 붙잡아 두는 용도
+    private static void report(boolean print, String name, long bytes, long putNanos, long getNanos,
+                               int hits, Object table) {
+        if (!print || table == null)
+            return;
+        System.out.printf("%s | %.1f | %.1f | %.1f%s%n", name,
+                (double) bytes / ENTRIES, (double) putNanos / ENTRIES, (double) getNanos / ENTRIES,
+                hits == ENTRIES ? "" : " (조회 실패 " + (ENTRIES - hits) + "건)");
+    }
+
+    // 측정 중인 테이블은 지역 변수로 살아 있으므로 GC 후 사용량 차이가 곧 테이블 크기
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,131 @@
+package org.week2.item13;
+
+import java.util.EmptyStackException;
+
+/**
+ * 고정 크기 청크를 연결해 원소를 담는 스택 예제
+ * - Stack 은 가득 차면 배열 전체를 두 배로 복사하고, 한 번 커진 배열은 줄어들지 않습니다.
+ * - 이 스택은 가득 차면 청크 하나만 새로 연결하므로 push 가 복사 없이 O(1) 입니다.
+ * - pop 으로 청크가 비면 바로 버리지 않고 하나는 여분으로 남겨 두어(히스테리시스) 청크 경계에서
+ *   push / pop 이 반복될 때 할당과 해제가 번갈아 일어나지 않게 합니다. 그보다 위의 청크는 해제합니다.
+ * - trimToSize 로 여분 청크까지 버릴 수 있고, retainedCapacity 로 현재 잡고 있는 칸 수를 볼 수 있습니다.
+ */
+public class SegmentedStack implements Cloneable {
+    private static final int DEFAULT_CHUNK_SIZE = 256;
+
+    private final int chunkSize;
+    private Chunk top;      // 맨 위 원소가 있는 청크 (비어 있으면 첫 청크)
+    private int index = 0;  // top 청크에 담긴 원소 수
+    private int size = 0;
+
+    // 아래 청크를 가리키는 prev 로 스택을, 위의 여분 청크를 가리키는 next 로 재사용을 처리
+    private static final class Chunk {
+        final Object[] elements;
+        Chunk prev;
+        Chunk next;
+
+        Chunk(int chunkSize, Chunk prev) {
+            this.elements = new Object[chunkSize];
+            this.prev = prev;
+        }
+    }
+
+    public SegmentedStack() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    public SegmentedStack(int chunkSize) {
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("청크 크기: " + chunkSize);
+        this.chunkSize = chunkSize;
+        this.top = new Chunk(chunkSize, null);
+    }
+
+    public void push(Object e) {
+        if (index == chunkSize) {
+            // 여분 청크가 있으면 재사용하고, 없으면 새 청크만 연결 (기존 원소는 복사하지 않음)
+            if (top.next == null)
+                top.next = new Chunk(chunkSize, top);
+            top = top.next;
+            index = 0;
+        }
+        top.elements[index++] = e;
+        size++;
+    }
+
+    public Object pop() {
+        if (size == 0)
+            throw new EmptyStackException();
+        if (index == 0) {
+            top = top.prev;
+            index = chunkSize;
+            // 방금 비운 청크는 여분으로 남기고 그 위의 청크는 해제
+            top.next.next = null;
+        }
+        Object result = top.elements[--index];
+        top.elements[index] = null; // 다 쓴 참조 해제
+        size--;
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 원소가 없는 여분 청크를 모두 해제합니다.
+     */
+    public void trimToSize() {
+        // pop 은 top 을 늦게 내리므로 청크 경계까지 꺼낸 뒤에는 top 자체가 빈 청크일 수 있음
+        if (index == 0 && top.prev != null) {
+            top = top.prev;
+            index = chunkSize;
+        }
+        top.next = null;
+    }
+
+    /**
+     * 스택이 잡고 있는 전체 칸 수 (여분 청크 포함)
+     */
+    public long retainedCapacity() {
+        long chunks = 0;
+        for (Chunk c = top; c != null; c = c.prev)
+            chunks++;
+        for (Chunk c = top.next; c != null; c = c.next)
+            chunks++;
+        return chunks * chunkSize;
+    }
+
+    @Override
+    public SegmentedStack clone() {
+        try {
+            SegmentedStack result = (SegmentedStack) super.clone();
+            // 원소가 있는 청크만 아래에서부터 복사 (여분 청크는 복사하지 않음)
+            Chunk copy = null;
+            for (Chunk c = bottom(); ; c = c.next) {
+                Chunk chunk = new Chunk(chunkSize, copy);
+                System.arraycopy(c.elements, 0, chunk.elements, 0, c == top ? index : chunkSize);
+                if (copy != null)
+                    copy.next = chunk;
+                copy = chunk;
+                if (c == top)
+                    break;
+            }
+            result.top = copy;
+            return result;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError();
+        }
+    }
+
+    private Chunk bottom() {
+        Chunk c = top;
+        while (c.prev != null)
+            c = c.prev;
+        return c;
+    }
+}
@@ -0,0 +1,60 @@
+package org.week2.item13;
+
+/**
+ * 배열을 두 배씩 복사하는 Stack 과 청크를 연결하는 SegmentedStack 을 비교하는 실행 클래스
+ * - 원소 1,000만 개를 push 하는 시간
+ * - 순간적으로 1,000만 개까지 쌓였다가 100개로 줄어든 뒤 스택이 붙잡고 있는 힙
+ */
+public class SegmentedStackBenchmark {
+    private static final int SPIKE = 10_000_000;
+    private static final int STEADY = 100;
+    private static final Object VALUE = "값";
+
+    public static void main(String[] args) {
+        System.out.println("구현 | push ns/op | 급증 후 남은 힙(KB)");
+        // JIT 워밍업을 위해 두 번 돌리고 두 번째 결과만 출력
+        for (int round = 0; round < 2; round++) {
+            boolean print = round == 1;
+
+            long base = usedMemory();
+            long start = System.nanoTime();
+            Stack stack = new Stack();
+            for (int i = 0; i < SPIKE; i++)
+                stack.push(VALUE);
+            long pushNanos = System.nanoTime() - start;
+            for (int i = 0; i < SPIKE - STEADY; i++)
+                stack.pop();
+            report(print, "Stack", pushNanos, usedMemory() - base, stack);
+            stack = null;
+
+            base = usedMemory();
+            start = System.nanoTime();
+            SegmentedStack segmented = new SegmentedStack();
+            for (int i = 0; i < SPIKE; i++)
+                segmented.push(VALUE);
+            pushNanos = System.nanoTime() - start;
+            for (int i = 0; i < SPIKE - STEADY; i++)
+                segmented.pop();
+            report(print, "SegmentedStack", pushNanos, usedMemory() - base, segmented);
+            if (print) {
+                System.out.println("SegmentedStack 남은 칸 수: " + segmented.retainedCapacity());
+                segmented.trimToSize();
+                System.out.println("trimToSize 후 남은 칸 수: " + segmented.retainedCapacity());
+            }
+        }
+    }
+
+    // stack 인자는 측정이 끝날 때까지 스택이 수거되지 않도록 붙잡아 두는 용도
+    private static void report(boolean print, String name, long pushNanos, long bytes, Object stack) {
+        if (print && stack != null)
+            System.out.printf("%s | %.1f | %d%n", name, (double) pushNanos / SPIKE, bytes / 1024);
+    }
+
+    // 측정 중인 스택은 지역 변수로 살아 있으므로 GC 후 사용량 차이가 곧 스택 크기
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
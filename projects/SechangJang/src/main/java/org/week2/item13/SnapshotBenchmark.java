@@ -0,0 +1,76 @@
+package org.week2.item13;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 깊은 복사(HashTable)와 구조 공유(PersistentHashTable) clone 비용을 비교하는 실행 클래스
+ * - clone 한 번에 걸리는 시간
+ * - 스냅숏 1,000개를 살려둔 상태에서 점유하는 힙 메모리
+ */
+public class SnapshotBenchmark {
+    private static final int ENTRIES = 10_000;
+    private static final int SNAPSHOTS = 1_000;
+    private static final Object[] SINK = new Object[16];
+
+    public static void main(String[] args) {
+        HashTable table = new HashTable();
+        PersistentHashTable persistent = new PersistentHashTable();
+        for (int i = 0; i < ENTRIES; i++) {
+            table.put("키" + i, i);
+            persistent.put("키" + i, i);
+        }
+
+        // 워밍업 후 clone 한 번의 평균 비용 측정
+        System.out.println("=== clone 비용 (엔트리 " + ENTRIES + "개) ===");
+        measureClone("HashTable (깊은 복사)", table::clone);
+        measureClone("PersistentHashTable (구조 공유)", persistent::clone);
+
+        // 스냅숏을 찍고 원본을 한 번씩 수정하는 패턴으로 메모리 측정
+        System.out.println("\n=== 살아있는 스냅숏 " + SNAPSHOTS + "개의 메모리 ===");
+        long base = usedMemory();
+        List<PersistentHashTable> sharedSnapshots = new ArrayList<>(SNAPSHOTS);
+        for (int i = 0; i < SNAPSHOTS; i++) {
+            sharedSnapshots.add(persistent.clone());
+            persistent.put("키" + (i % ENTRIES), -(i + 1));
+        }
+        long sharedBytes = usedMemory() - base;
+        System.out.println("PersistentHashTable: " + sharedBytes / 1024 + "KB (" + sharedSnapshots.size() + "개)");
+
+        base = usedMemory();
+        List<HashTable> deepSnapshots = new ArrayList<>(SNAPSHOTS);
+        for (int i = 0; i < SNAPSHOTS; i++) {
+            deepSnapshots.add(table.clone());
+            table.put("키" + (i % ENTRIES), -(i + 1));
+        }
+        long deepBytes = usedMemory() - base;
+        System.out.println("HashTable: " + deepBytes / 1024 + "KB (" + deepSnapshots.size() + "개)");
+
+        // 스냅숏이 이후 수정의 영향을 받지 않는지 확인
+        System.out.println("\n첫 스냅숏의 값(0이어야 함): " + sharedSnapshots.get(0).get("키0"));
+        System.out.println("깊은 복사 스냅숏의 값(0이어야 함): " + deepSnapshots.get(0).get("키0"));
+        System.out.println("현재 원본의 값: " + persistent.get("키0"));
+    }
+
+    // clone 결과를 정적 배열에 남겨 객체가 메서드 밖으로 나가게 하므로 JIT 가 할당을 지우지 못함
+    private static void measureClone(String name, Supplier<Object> clone) {
+        for (int i = 0; i < 200; i++)
+            SINK[i & (SINK.length - 1)] = clone.get();
+        int iterations = 1_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++)
+            SINK[i & (SINK.length - 1)] = clone.get();
+        long elapsed = System.nanoTime() - start;
+        if (SINK[0] == null)
+            throw new AssertionError();
+        System.out.printf("%s: %.1f ns/clone%n", name, (double) elapsed / iterations);
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,68 @@
+package org.week2.item13;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 재시작 상황을 흉내 내어 put 으로 HashTable 을 다시 채우는 방식과
+ * 스냅숏 파일을 매핑하는 방식의 첫 조회까지 걸리는 시간과 힙 사용량을 비교하는 실행 클래스
+ * 엔트리 수는 첫 번째 인자로 바꿀 수 있습니다. (1,000만 개는 -Xmx4g 정도 필요)
+ */
+public class SnapshotReloadBenchmark {
+    public static void main(String[] args) throws IOException {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path file = Files.createTempFile("hashtable", ".snapshot");
+        try {
+            HashTable source = new HashTable();
+            for (int i = 0; i < entries; i++)
+                source.put("키" + i, "값" + i);
+            long start = System.nanoTime();
+            MappedHashTable.write(source, file);
+            System.out.printf("스냅숏 기록: %.1fms, 파일 크기 %dMB%n",
+                    (System.nanoTime() - start) / 1_000_000.0, Files.size(file) / 1024 / 1024);
+            source = null;
+            String probe = "키" + (entries / 2);
+
+            // 1. put 으로 다시 채우기 (원본 데이터를 다시 만들어 넣는 재시작 경로)
+            long base = usedMemory();
+            start = System.nanoTime();
+            HashTable rebuilt = new HashTable();
+            for (int i = 0; i < entries; i++)
+                rebuilt.put("키" + i, "값" + i);
+            Object value = rebuilt.get(probe);
+            long rebuildNanos = System.nanoTime() - start;
+            long rebuildBytes = usedMemory() - base;
+            System.out.printf("put 재구축: 첫 조회까지 %.1fms, 힙 %dMB (%s)%n",
+                    rebuildNanos / 1_000_000.0, rebuildBytes / 1024 / 1024, value);
+            rebuilt = null;
+
+            // 2. 스냅숏 매핑 후 바로 조회
+            base = usedMemory();
+            start = System.nanoTime();
+            try (MappedHashTable mapped = MappedHashTable.open(file)) {
+                value = mapped.get(probe);
+                long mapNanos = System.nanoTime() - start;
+                long mapBytes = usedMemory() - base;
+                System.out.printf("매핑: 첫 조회까지 %.3fms, 힙 %dKB (%s)%n",
+                        mapNanos / 1_000_000.0, mapBytes / 1024, value);
+
+                start = System.nanoTime();
+                int hits = 0;
+                for (int i = 0; i < entries; i++)
+                    if (mapped.containsKey("키" + i)) hits++;
+                System.out.printf("매핑 전체 조회: %.1fms (%d/%d 건 적중)%n",
+                        (System.nanoTime() - start) / 1_000_000.0, hits, entries);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,115 @@
+package org.week2.item13;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * item13 의 스택 구현마다 push / pop 을 몰아서 반복한 뒤 다 쓴 참조가 남는지 확인하는 실행 클래스
+ * - 원소마다 WeakReference 탐침을 달고, 모두 pop 한 뒤 GC 후에도 살아 있는 탐침 수를 셉니다. (스택이 붙잡은 객체)
+ * - 스택은 살려 둔 채 MemoryMXBean 으로 GC 후 힙 사용량을 재서 스택이 붙잡은 힙을 구합니다. (수십 KB 이하는 오차 범위)
+ * - 붙잡은 객체가 하나라도 있으면 "회귀" 로 표시하고 종료 코드 1로 끝납니다.
+ * - 새 스택 구현을 만들면 variants() 에 한 줄 추가하면 됩니다.
+ */
+public class StackLeakBenchmark {
+    private static final int[] BURSTS = {10_000, 1_000, 100, 10_000}; // 한 번에 push 했다가 모두 pop 하는 원소 수
+    private static final int PAYLOAD = 1_024;                            // 원소 하나의 크기(바이트)
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    // 구현마다 다른 클래스를 같은 코드로 돌리기 위한 최소 인터페이스
+    private interface StackOps {
+        void push(Object e);
+
+        Object pop();
+    }
+
+    private static Map<String, Supplier<StackOps>> variants() {
+        Map<String, Supplier<StackOps>> variants = new LinkedHashMap<>();
+        variants.put("Stack", () -> {
+            Stack s = new Stack();
+            return ops(s::push, s::pop);
+        });
+        variants.put("SegmentedStack", () -> {
+            SegmentedStack s = new SegmentedStack();
+            return ops(s::push, s::pop);
+        });
+        variants.put("PersistentStack", () -> {
+            PersistentStack s = new PersistentStack();
+            return ops(s::push, s::pop);
+        });
+        return variants;
+    }
+
+    private interface Push {
+        void push(Object e);
+    }
+
+    private interface Pop {
+        Object pop();
+    }
+
+    private static StackOps ops(Push push, Pop pop) {
+        return new StackOps() {
+            @Override
+            public void push(Object e) {
+                push.push(e);
+            }
+
+            @Override
+            public Object pop() {
+                return pop.pop();
+            }
+        };
+    }
+
+    public static void main(String[] args) {
+        System.out.println("구현 | 남은 힙(KB) | 붙잡힌 객체 | 판정");
+        int regressions = 0;
+        for (Map.Entry<String, Supplier<StackOps>> variant : variants().entrySet()) {
+            // 탐침 목록이 힙 측정에 섞이지 않도록 힙과 탐침을 따로 측정
+            long retainedBytes = run(variant.getValue(), null);
+            List<WeakReference<byte[]>> probes = new ArrayList<>();
+            run(variant.getValue(), probes);
+            long pinned = probes.stream().filter(p -> p.get() != null).count();
+            if (pinned > 0)
+                regressions++;
+            System.out.printf("%s | %d | %d | %s%n", variant.getKey(), retainedBytes / 1024, pinned,
+                    pinned == 0 ? "OK" : "회귀");
+        }
+        if (regressions > 0) {
+            System.out.println("회귀 " + regressions + "건");
+            System.exit(1);
+        }
+    }
+
+    // push / pop 묶음을 모두 돌린 뒤 스택이 붙잡은 힙을 반환. probes 가 있으면 원소마다 탐침을 담음
+    private static long run(Supplier<StackOps> factory, List<WeakReference<byte[]>> probes) {
+        long base = usedHeap();
+        StackOps stack = factory.get();
+        for (int burst : BURSTS) {
+            for (int i = 0; i < burst; i++) {
+                byte[] e = new byte[PAYLOAD];
+                if (probes != null)
+                    probes.add(new WeakReference<>(e));
+                stack.push(e);
+            }
+            for (int i = 0; i < burst; i++)
+                stack.pop(); // 꺼낸 값은 버림
+        }
+        long retained = usedHeap() - base;
+        Reference.reachabilityFence(stack); // 측정이 끝날 때까지 스택을 살려 둠
+        return Math.max(0, retained);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,95 @@
+package org.week2.item13;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 자주 쓰는 HashStrategy 모음 (아이템 38: 인터페이스를 구현한 열거 타입)
+ * - DEFAULT: 키의 hashCode / equals
+ * - IDENTITY: 참조가 같아야 같은 키 (System.identityHashCode 사용)
+ * - CASE_INSENSITIVE: 대소문자를 무시하는 CharSequence 키. 문자열을 새로 만들지 않고 문자 단위로 비교합니다.
+ * - ARRAY_CONTENT: 배열은 내용으로 비교 (중첩 배열 포함), 배열이 아닌 키는 hashCode / equals
+ */
+public enum StandardHashStrategy implements HashStrategy {
+    DEFAULT {
+        @Override
+        public int hash(Object key) {
+            return key.hashCode();
+        }
+
+        @Override
+        public boolean equivalent(Object a, Object b) {
+            return a.equals(b);
+        }
+    },
+    IDENTITY {
+        @Override
+        public int hash(Object key) {
+            return System.identityHashCode(key);
+        }
+
+        @Override
+        public boolean equivalent(Object a, Object b) {
+            return a == b;
+        }
+    },
+    CASE_INSENSITIVE {
+        @Override
+        public int hash(Object key) {
+            CharSequence s = (CharSequence) key;
+            int h = 0;
+            for (int i = 0; i < s.length(); i++)
+                h = 31 * h + fold(s.charAt(i));
+            return h;
+        }
+
+        @Override
+        public boolean equivalent(Object a, Object b) {
+            CharSequence x = (CharSequence) a;
+            CharSequence y = (CharSequence) b;
+            if (x.length() != y.length())
+                return false;
+            for (int i = 0; i < x.length(); i++) {
+                char c = x.charAt(i);
+                char d = y.charAt(i);
+                if (c != d && fold(c) != fold(d))
+                    return false;
+            }
+            return true;
+        }
+    },
+    ARRAY_CONTENT {
+        @Override
+        public int hash(Object key) {
+            if (key instanceof Object[])
+                return Arrays.deepHashCode((Object[]) key);
+            if (key instanceof byte[])
+                return Arrays.hashCode((byte[]) key);
+            if (key instanceof char[])
+                return Arrays.hashCode((char[]) key);
+            if (key instanceof short[])
+                return Arrays.hashCode((short[]) key);
+            if (key instanceof int[])
+                return Arrays.hashCode((int[]) key);
+            if (key instanceof long[])
+                return Arrays.hashCode((long[]) key);
+            if (key instanceof float[])
+                return Arrays.hashCode((float[]) key);
+            if (key instanceof double[])
+                return Arrays.hashCode((double[]) key);
+            if (key instanceof boolean[])
+                return Arrays.hashCode((boolean[]) key);
+            return key.hashCode();
+        }
+
+        @Override
+        public boolean equivalent(Object a, Object b) {
+            return Objects.deepEquals(a, b);
+        }
+    };
+
+    // String.equalsIgnoreCase 와 같은 규칙으로 대문자로 바꾼 뒤 다시 소문자로 바꿈
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+}
@@ -0,0 +1,86 @@
+package org.week2.item13;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 대소문자를 무시하는 조회를 키 래퍼 객체로 할 때와 HashStrategy 로 할 때의 시간과 할당량을 비교하는 실행 클래스
+ * 하위 비트가 모두 0인 해시(낮은 엔트로피)가 섞는 함수 덕분에 고르게 퍼지는지도 메트릭으로 확인합니다.
+ */
+public class StrategyBenchmark {
+    private static final int ENTRIES = 100_000;
+    private static final int LOOKUPS = 1_000_000;
+
+    // 현재 스레드가 할당한 바이트 수를 읽기 위해 HotSpot 확장 인터페이스 사용
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // 전략이 없을 때 쓰던 방식: 조회할 때마다 키를 감싸야 함
+    private static final class CaseInsensitiveKey {
+        private final String s;
+
+        CaseInsensitiveKey(String s) {
+            this.s = s;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CaseInsensitiveKey && s.equalsIgnoreCase(((CaseInsensitiveKey) o).s);
+        }
+
+        @Override
+        public int hashCode() {
+            return StandardHashStrategy.CASE_INSENSITIVE.hash(s);
+        }
+    }
+
+    public static void main(String[] args) {
+        String[] stored = new String[ENTRIES];
+        String[] queries = new String[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            stored[i] = "User-" + i;
+            queries[i] = stored[i].toUpperCase();
+        }
+        HashTable wrapped = new HashTable();
+        HashTable strategy = new HashTable(StandardHashStrategy.CASE_INSENSITIVE);
+        for (int i = 0; i < ENTRIES; i++) {
+            wrapped.put(new CaseInsensitiveKey(stored[i]), i);
+            strategy.put(stored[i], i);
+        }
+
+        System.out.println("방식 | get ns/op | get B/op");
+        // JIT 워밍업을 위해 두 번 돌리고 두 번째 결과만 출력
+        for (int round = 0; round < 2; round++) {
+            boolean print = round == 1;
+            long threadId = Thread.currentThread().getId();
+            int hits = 0;
+            long allocated = THREADS.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++)
+                if (wrapped.get(new CaseInsensitiveKey(queries[i % ENTRIES])) != null) hits++;
+            report(print, "키 래퍼", start, allocated, hits);
+
+            hits = 0;
+            allocated = THREADS.getThreadAllocatedBytes(threadId);
+            start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++)
+                if (strategy.get(queries[i % ENTRIES]) != null) hits++;
+            report(print, "CASE_INSENSITIVE 전략", start, allocated, hits);
+        }
+
+        // hashCode 가 2^14 의 배수뿐인 키: 섞지 않으면 16K 이하 크기의 테이블에서 모두 0번 버킷에 몰림
+        HashTable lowEntropy = new HashTable();
+        lowEntropy.enableMetrics();
+        for (int i = 0; i < ENTRIES; i++)
+            lowEntropy.put(i << 14, i);
+        System.out.println("낮은 엔트로피 해시: " + lowEntropy.stats());
+    }
+
+    private static void report(boolean print, String name, long start, long allocated, int hits) {
+        long elapsed = System.nanoTime() - start;
+        allocated = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocated;
+        if (hits != LOOKUPS)
+            throw new AssertionError("조회 실패 " + (LOOKUPS - hits) + "건");
+        if (print)
+            System.out.printf("%s | %.1f | %.1f%n", name, (double) elapsed / LOOKUPS, (double) allocated / LOOKUPS);
+    }
+}
@@ -0,0 +1,89 @@
+package org.week2.item13;
+
+import java.util.Random;
+
+/**
+ * 체인 방식 HashTable 과 제어 바이트 방식 SwissHashTable 의 put, 적중 조회, 실패 조회 속도를 비교하는 실행 클래스
+ * 실패 조회는 저장하지 않은 키 범위로 측정합니다.
+ * Integer 키를 차례로 조회하면 체인 방식은 버킷 배열을 순서대로 읽게 되어 캐시에 유리하므로,
+ * 두 구현 모두 키 순서를 섞어 임의 접근으로 측정합니다.
+ */
+public class SwissBenchmark {
+    private static final int ENTRIES = 1_000_000;
+
+    // 두 구현을 같은 코드로 측정하기 위한 최소 인터페이스
+    private interface Table {
+        Object get(Object key);
+
+        Object put(Object key, Object value);
+    }
+
+    public static void main(String[] args) {
+        Integer[] keys = new Integer[ENTRIES * 2];
+        for (int i = 0; i < keys.length; i++)
+            keys[i] = i;
+        shuffle(keys, 0, ENTRIES);
+        shuffle(keys, ENTRIES, keys.length);
+        System.out.println("구현 | put ns/op | 적중 get ns/op | 실패 get ns/op");
+        // JIT 워밍업을 위해 두 번 돌리고 두 번째 결과만 출력
+        for (int round = 0; round < 2; round++) {
+            boolean print = round == 1;
+            HashTable chained = new HashTable();
+            measure(print, "HashTable(체인)", keys, new Table() {
+                public Object get(Object key) {
+                    return chained.get(key);
+                }
+
+                public Object put(Object key, Object value) {
+                    return chained.put(key, value);
+                }
+            });
+            SwissHashTable swiss = new SwissHashTable();
+            measure(print, "SwissHashTable", keys, new Table() {
+                public Object get(Object key) {
+                    return swiss.get(key);
+                }
+
+                public Object put(Object key, Object value) {
+                    return swiss.put(key, value);
+                }
+            });
+        }
+    }
+
+    // keys 앞 절반은 저장하고 뒤 절반은 실패 조회용
+    private static void measure(boolean print, String name, Integer[] keys, Table table) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ENTRIES; i++)
+            table.put(keys[i], keys[i]);
+        long putNanos = System.nanoTime() - start;
+
+        int hits = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < ENTRIES; i++)
+            if (table.get(keys[i]) != null) hits++;
+        long hitNanos = System.nanoTime() - start;
+
+        int misses = 0;
+        start = System.nanoTime();
+        for (int i = ENTRIES; i < keys.length; i++)
+            if (table.get(keys[i]) == null) misses++;
+        long missNanos = System.nanoTime() - start;
+
+        if (hits != ENTRIES || misses != ENTRIES)
+            throw new AssertionError("적중 " + hits + "건, 실패 " + misses + "건");
+        if (print)
+            System.out.printf("%s | %.1f | %.1f | %.1f%n", name, (double) putNanos / ENTRIES,
+                    (double) hitNanos / ENTRIES, (double) missNanos / ENTRIES);
+    }
+
+    private static void shuffle(Integer[] keys, int from, int to) {
+        Random random = new Random(42);
+        for (int i = to - 1; i > from; i--) {
+            int j = from + random.nextInt(i - from + 1);
+            Integer tmp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = tmp;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package org.week2.item13;
+
+import java.util.Arrays;
+
+/**
+ * SwissTable 방식의 제어 바이트 배열로 탐사하는 개방 주소법 HashTable 예제
+ * - 슬롯마다 제어 바이트 하나를 두며, 사용 중이면 해시 하위 7비트(H2), 아니면 EMPTY / DELETED 표시를 담습니다.
+ * - 제어 바이트 8개를 long 하나에 담아 그룹으로 다루고, SWAR(레지스터 안의 SIMD) 비트 연산으로
+ *   그룹 안에서 H2 가 같은 슬롯을 한 번에 골라냅니다. 키는 후보 슬롯에서만 equals 로 비교합니다.
+ * - 키와 값은 Entry 객체 없이 한 배열에 번갈아 두므로(키, 값, 키, 값...) 체인 링크를 따라가는 포인터 추적이 없고
+ *   키를 찾으면 값도 같은 캐시 라인에 있습니다.
+ * - 그룹 순서는 해시 상위 비트(H1)에서 시작하는 삼각수 탐사이며, 빈 칸이 있는 그룹에 이르면 멈춥니다.
+ * - put / get / containsKey / remove / clone 은 HashTable 과 같은 형태입니다.
+ */
+public class SwissHashTable implements Cloneable {
+    private static final int GROUP_WIDTH = 8;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+    private static final long LSB = 0x0101010101010101L;
+    private static final long MSB = 0x8080808080808080L;
+    private static final long EMPTY = 0x80;      // 1000_0000
+    private static final long DELETED = 0xFE;    // 1111_1110 (묘비)
+
+    private long[] control;   // 그룹마다 제어 바이트 8개, 바이트 j 는 슬롯 group * 8 + j
+    private Object[] slots;    // 슬롯 i 의 키는 2i, 값은 2i + 1
+    private int groupMask;
+    private int size = 0;
+    private int growthLeft;   // 빈 칸을 더 채울 수 있는 수 (용량의 7/8 - 사용 중 - 묘비)
+
+    public SwissHashTable() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public SwissHashTable(int initialCapacity) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("초기 용량: " + initialCapacity);
+        int capacity = GROUP_WIDTH;
+        while (capacity < initialCapacity)
+            capacity <<= 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        int groups = capacity / GROUP_WIDTH;
+        control = new long[groups];
+        Arrays.fill(control, EMPTY * LSB);
+        slots = new Object[capacity * 2];
+        groupMask = groups - 1;
+        growthLeft = capacity - capacity / 8;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int h1(int hash) {
+        return hash >>> 7;
+    }
+
+    private static long h2(int hash) {
+        return hash & 0x7F;
+    }
+
+    // 그룹에서 제어 바이트가 h2 인 바이트의 최상위 비트를 켠 마스크
+    // 실제 일치 바로 위 바이트에 거짓 양성이 생길 수 있지만 키를 비교하므로 결과는 바뀌지 않음
+    private static long matchH2(long group, long h2) {
+        long x = group ^ (LSB * h2);
+        return (x - LSB) & ~x & MSB;
+    }
+
+    // EMPTY(10000000) 만 골라냄. DELETED(11111110) 는 6번 비트가 켜져 있어 제외됨
+    private static long matchEmpty(long group) {
+        return group & (~group << 6) & MSB;
+    }
+
+    // 사용 중인 슬롯은 최상위 비트가 0이므로 최상위 비트만 보면 됨
+    private static long matchEmptyOrDeleted(long group) {
+        return group & MSB;
+    }
+
+    // 마스크의 가장 낮은 켜진 바이트 위치
+    private static int lowestByte(long mask) {
+        return Long.numberOfTrailingZeros(mask) >>> 3;
+    }
+
+    private void setControl(int slot, long value) {
+        int shift = (slot & (GROUP_WIDTH - 1)) << 3;
+        int g = slot / GROUP_WIDTH;
+        control[g] = (control[g] & ~(0xFFL << shift)) | (value << shift);
+    }
+
+    // 키가 있는 슬롯을 반환하고, 없으면 -1
+    private int find(Object key, int hash) {
+        long h2 = h2(hash);
+        int g = h1(hash) & groupMask;
+        for (int step = 1; ; step++) {
+            long group = control[g];
+            for (long m = matchH2(group, h2); m != 0; m &= m - 1) {
+                int slot = g * GROUP_WIDTH + lowestByte(m);
+                Object k = slots[slot * 2];
+                if (k == key || key.equals(k))
+                    return slot;
+            }
+            if (matchEmpty(group) != 0)
+                return -1;
+            g = (g + step) & groupMask; // 그룹 수가 2의 거듭제곱이면 삼각수 탐사는 모든 그룹을 한 번씩 방문
+        }
+    }
+
+    // 탐사 순서에서 처음 만나는 EMPTY 또는 DELETED 슬롯
+    private int findInsertSlot(int hash) {
+        int g = h1(hash) & groupMask;
+        for (int step = 1; ; step++) {
+            long m = matchEmptyOrDeleted(control[g]);
+            if (m != 0)
+                return g * GROUP_WIDTH + lowestByte(m);
+            g = (g + step) & groupMask;
+        }
+    }
+
+    private boolean isEmptySlot(int slot) {
+        return (control[slot / GROUP_WIDTH] >>> ((slot & (GROUP_WIDTH - 1)) << 3) & 0xFF) == EMPTY;
+    }
+
+    /**
+     * 키에 값을 저장합니다. 이미 있는 키라면 값을 교체하고 이전 값을 반환합니다.
+     */
+    public Object put(Object key, Object value) {
+        int hash = hash(key);
+        int slot = find(key, hash);
+        if (slot >= 0) {
+            Object old = slots[slot * 2 + 1];
+            slots[slot * 2 + 1] = value;
+            return old;
+        }
+        slot = findInsertSlot(hash);
+        if (growthLeft == 0 && isEmptySlot(slot)) {
+            resize();
+            slot = findInsertSlot(hash);
+        }
+        if (isEmptySlot(slot))
+            growthLeft--; // 묘비 자리를 재사용하면 채울 수 있는 수는 그대로
+        setControl(slot, h2(hash));
+        slots[slot * 2] = key;
+        slots[slot * 2 + 1] = value;
+        size++;
+        return null;
+    }
+
+    public Object get(Object key) {
+        int slot = find(key, hash(key));
+        return slot < 0 ? null : slots[slot * 2 + 1];
+    }
+
+    public boolean containsKey(Object key) {
+        return find(key, hash(key)) >= 0;
+    }
+
+    /**
+     * 키에 해당하는 엔트리를 제거하고 값을 반환합니다. 없으면 null 을 반환합니다.
+     */
+    public Object remove(Object key) {
+        int slot = find(key, hash(key));
+        if (slot < 0)
+            return null;
+        Object old = slots[slot * 2 + 1];
+        slots[slot * 2] = null;
+        slots[slot * 2 + 1] = null;
+        // 같은 그룹에 빈 칸이 있으면 어떤 탐사도 이 그룹에서 멈추므로 묘비 없이 비워도 됨
+        if (matchEmpty(control[slot / GROUP_WIDTH]) != 0) {
+            setControl(slot, EMPTY);
+            growthLeft++;
+        } else {
+            setControl(slot, DELETED);
+        }
+        size--;
+        return old;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // 묘비가 많아 자리가 찬 것이면 같은 크기로, 실제로 찼으면 두 배로 다시 배치
+    private void resize() {
+        Object[] oldSlots = slots;
+        int capacity = oldSlots.length / 2;
+        allocate(size * 16 <= capacity * 7 ? capacity : capacity * 2);
+        for (int i = 0; i < oldSlots.length; i += 2) {
+            Object key = oldSlots[i];
+            if (key == null)
+                continue;
+            int hash = hash(key);
+            int slot = findInsertSlot(hash);
+            setControl(slot, h2(hash));
+            slots[slot * 2] = key;
+            slots[slot * 2 + 1] = oldSlots[i + 1];
+            growthLeft--;
+        }
+    }
+
+    @Override
+    public SwissHashTable clone() {
+        try {
+            SwissHashTable result = (SwissHashTable) super.clone();
+            // 엔트리 객체가 없으므로 배열 두 개만 복사하면 원본과 독립적인 구조가 됨
+            result.control = control.clone();
+            result.slots = slots.clone();
+            return result;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package chapter2.item7.ex2;
+
+import chapter5.item29.ex2.BoundedStack;
+import chapter5.item31.ex1.StackV2;
+import chapter5.item31.ex1.StackV3;
+import chapter5.item31.ex1.StackV4;
+import chapter5.item31.ex1.StackV5;
+import chapter5.item31.ex1.StackV6;
+import chapter5.item31.ex10.AggregateStack;
+import chapter5.item31.ex7.ConcurrentStack;
+import chapter5.item31.ex8.ElementCodec;
+import chapter5.item31.ex8.SpillingStack;
+import chapter5.item31.ex9.WorkStealingDeque;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class StackLeakHarness {
+    //트리에 있는 스택 구현마다 push / pop 을 몰아서 반복한 뒤 다 쓴 참조가 남는지 확인하는 실행 클래스
+    //- 원소마다 WeakReference 탐침을 달고, 모두 pop 한 뒤 GC 후에도 살아 있는 탐침 수를 셈 (스택이 붙잡은 객체)
+    //- 스택은 살려 둔 채 MemoryMXBean 으로 GC 후 힙 사용량을 재서 스택이 붙잡은 힙을 구함 (수십 KB 이하는 오차 범위)
+    //붙잡은 객체가 있으면 누수이며, KNOWN_LEAKS 에 없는 구현이면 "회귀" 로 표시하고 종료 코드 1로 끝남
+    //새 스택 구현을 만들면 variants() 에 한 줄 추가하면 됨
+    //기본 타입 스택(IntStack 등)은 참조를 담지 않으므로 제외
+    //chapter5.item29.ex1.StackV1 은 생성자가 없어 elements 가 null 이라 push 가 바로 실패하므로 제외
+
+    private static final int[] BURSTS = {10_000, 1_000, 100, 10_000}; //한 번에 push 했다가 모두 pop 하는 원소 수
+    private static final int PAYLOAD = 1_024;                            //원소 하나의 크기(바이트)
+
+    //item7 예제처럼 일부러 pop 에서 참조를 지우지 않는 구현
+    private static final List<String> KNOWN_LEAKS = List.of(
+            "chapter2.item7.ex1.Stack",
+            "chapter3.item13.ex2.Stack");
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    //구현마다 다른 API 를 같은 코드로 돌리기 위한 최소 인터페이스
+    private interface StackOps extends AutoCloseable {
+        void push(byte[] e);
+
+        Object pop();
+
+        @Override
+        default void close() {
+        }
+    }
+
+    private static final class Variant {
+        final String name;
+        final Supplier<StackOps> factory;
+
+        Variant(String name, Supplier<StackOps> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+    }
+
+    private static List<Variant> variants() {
+        List<Variant> variants = new ArrayList<>();
+        variants.add(new Variant("chapter2.item7.ex1.Stack", () -> {
+            chapter2.item7.ex1.Stack s = new chapter2.item7.ex1.Stack();
+            return ops(s::push, s::pop);
+        }));
+        variants.add(new Variant("chapter3.item13.ex2.Stack", () -> {
+            chapter3.item13.ex2.Stack s = new chapter3.item13.ex2.Stack();
+            return ops(s::push, s::pop);
+        }));
+        variants.add(new Variant("chapter5.item29.ex1.StackV2", () -> {
+            chapter5.item29.ex1.StackV2<byte[]> s = new chapter5.item29.ex1.StackV2<>();
+            return ops(s::push, s::pop);
+        }));
+        variants.add(new Variant("chapter5.item29.ex2.BoundedStack", () -> {
+            BoundedStack<byte[]> s = new BoundedStack<>(16_384);
+            return ops(s::push, s::pop);
+        }));
+        variants.add(new Variant("chapter5.item31.ex1.StackV2", () -> {
+            StackV2<byte[]> s = new StackV2<>();
+            return ops(s::push, s::pop);
+        }));
+        variants.add(new Variant("chapter5.item31.ex1.StackV3", () -> {
+            StackV3<byte[]> s = new StackV3<>();
+            return ops(s::push, s::pop);
+        }));
+        variants.add(new Variant("chapter5.item31.ex1.StackV4", () -> {
+            StackV4<byte[]> s = new StackV4<>();
+            return ops(s::push, s::pop);
+        }));
+        variants.add(new Variant("chapter5.item31.ex1.StackV5", () -> {
+            StackV5<byte[]> s = new StackV5<>();
+            return ops(s::push, s::pop);
+        }));
+        variants.add(new Variant("chapter5.item31.ex1.StackV6", () -> {
+            StackV6<byte[]> s = new StackV6<>();
+            return ops(s::push, s::pop);
+        }));
+        variants.add(new Variant("chapter5.item31.ex7.ConcurrentStack", () -> {
+            ConcurrentStack<byte[]> s = new ConcurrentStack<>();
+            return ops(s::push, s::pop);
+        }));
+        variants.add(new Variant("chapter5.item31.ex8.SpillingStack", () -> {
+            SpillingStack<byte[]> s = new SpillingStack<>(BYTES, 2_048, 512);
+            return new StackOps() {
+                @Override
+                public void push(byte[] e) {
+                    s.push(e);
+                }
+
+                @Override
+                public Object pop() {
+                    return s.pop();
+                }
+
+                @Override
+                public void close() {
+                    s.close();
+                }
+            };
+        }));
+        variants.add(new Variant("chapter5.item31.ex9.WorkStealingDeque", () -> {
+            WorkStealingDeque<byte[]> s = new WorkStealingDeque<>();
+            return ops(s::push, s::pop);
+        }));
+        variants.add(new Variant("chapter5.item31.ex10.AggregateStack", () -> {
+            AggregateStack<byte[]> s = new AggregateStack<>(Comparator.comparingInt(e -> e[0]), (a, b) -> b);
+            return ops(s::push, s::pop);
+        }));
+        return variants;
+    }
+
+    private interface Push {
+        void push(byte[] e);
+    }
+
+    private interface Pop {
+        Object pop();
+    }
+
+    private static StackOps ops(Push push, Pop pop) {
+        return new StackOps() {
+            @Override
+            public void push(byte[] e) {
+                push.push(e);
+            }
+
+            @Override
+            public Object pop() {
+                return pop.pop();
+            }
+        };
+    }
+
+    private static final ElementCodec<byte[]> BYTES = new ElementCodec<>() {
+        @Override
+        public void encode(byte[] e, DataOutput out) throws IOException {
+            out.writeInt(e.length);
+            out.write(e);
+        }
+
+        @Override
+        public byte[] decode(DataInput in) throws IOException {
+            byte[] e = new byte[in.readInt()];
+            in.readFully(e);
+            return e;
+        }
+    };
+
+    public static void main(String[] args) {
+        System.out.println("구현 | 남은 힙(KB) | 붙잡힌 객체 | 판정");
+        int regressions = 0;
+        for (Variant variant : variants()) {
+            //탐침 목록이 힙 측정에 섞이지 않도록 힙과 탐침을 따로 측정
+            long retainedBytes = run(variant, null);
+            List<WeakReference<byte[]>> probes = new ArrayList<>();
+            run(variant, probes);
+            long pinned = probes.stream().filter(p -> p.get() != null).count();
+
+            String verdict;
+            if (pinned == 0) {
+                verdict = "OK";
+            } else if (KNOWN_LEAKS.contains(variant.name)) {
+                verdict = "누수 (알려짐)";
+            } else {
+                verdict = "회귀";
+                regressions++;
+            }
+            System.out.printf("%s | %d | %d | %s%n", variant.name, retainedBytes / 1024, pinned, verdict);
+        }
+        if (regressions > 0) {
+            System.out.println("회귀 " + regressions + "건");
+            System.exit(1);
+        }
+    }
+
+    //push / pop 묶음을 모두 돌린 뒤 스택이 붙잡은 힙을 반환. probes 가 있으면 원소마다 탐침을 담음
+    private static long run(Variant variant, List<WeakReference<byte[]>> probes) {
+        long base = usedHeap();
+        try (StackOps stack = variant.factory.get()) {
+            for (int burst : BURSTS) {
+                for (int i = 0; i < burst; i++) {
+                    byte[] e = new byte[PAYLOAD];
+                    e[0] = (byte) i;
+                    if (probes != null)
+                        probes.add(new WeakReference<>(e));
+                    stack.push(e);
+                }
+                for (int i = 0; i < burst; i++)
+                    stack.pop(); //꺼낸 값은 버림
+            }
+            long retained = usedHeap() - base;
+            Reference.reachabilityFence(stack); //측정이 끝날 때까지 스택을 살려 둠
+            return Math.max(0, retained);
+        }
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -4,6 +4,16 @@ public class HashTable implements Cloneable {
 
     private Entry[] buckets;
 
+    public HashTable(int capacity) {
+        buckets = new Entry[capacity];
+    }
+
+    //clone 비교용으로 데이터를 채우는 메서드, 같은 키 검사 없이 해당 버킷 체인의 맨 앞에 붙임
+    public void add(Object key, Object value) {
+        int i = Math.floorMod(key.hashCode(), buckets.length);
+        buckets[i] = new Entry(key, value, buckets[i]);
+    }
+
     private static class Entry {
         final Object key;
         Object value;
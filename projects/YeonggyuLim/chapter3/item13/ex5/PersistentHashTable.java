@@ -0,0 +1,253 @@
+package chapter3.item13.ex5;
+
+public class PersistentHashTable implements Cloneable {
+    //HashTable 의 clone 은 모든 체인을 deepCopy 하므로 엔트리 수에 비례(O(n))
+    //이 테이블은 불변 노드로 된 해시 배열 매핑 트라이(HAMT)라서 clone 은 루트 참조만 복사(O(1))
+    //put / remove 는 바뀌는 경로(깊이 최대 7)의 노드만 새로 만들고 나머지는 이전 버전과 공유
+    //노드를 절대 고치지 않으므로 복사본끼리 노드를 공유해도 서로 영향을 주지 않음
+
+    private static final int BITS = 5; //트라이 한 단계가 쓰는 해시 비트 수 (자식 최대 32개)
+    private static final int MASK = (1 << BITS) - 1;
+
+    private Node root = Node.EMPTY;
+    private int size = 0;
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    //같은 키가 있으면 값을 바꾸고 이전 값을 반환
+    public Object put(Object key, Object value) {
+        Object[] old = new Object[1];
+        boolean[] added = new boolean[1];
+        root = root.put(key, value, hash(key), 0, old, added);
+        if (added[0])
+            size++;
+        return old[0];
+    }
+
+    public Object get(Object key) {
+        return root.get(key, hash(key), 0);
+    }
+
+    public Object remove(Object key) {
+        Object[] old = new Object[1];
+        boolean[] removed = new boolean[1];
+        Object result = root.remove(key, hash(key), 0, old, removed);
+        //마지막 키가 빠지면 빈 노드로, 끌어올린 Leaf 만 남으면 루트 노드로 다시 감쌈
+        if (result == null)
+            root = Node.EMPTY;
+        else if (result instanceof Leaf)
+            root = Node.of((Leaf) result, 0);
+        else
+            root = (Node) result;
+        if (removed[0])
+            size--;
+        return old[0];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public PersistentHashTable clone() {
+        try {
+            //노드는 불변이므로 루트 참조와 크기만 복사하면 충분 (깊은 복사 불필요)
+            return (PersistentHashTable) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError();
+        }
+    }
+
+    private static final class Leaf {
+        final Object key;
+        final int hash;
+        final Object value;
+        final Leaf next; //해시 값 전체가 같은 키끼리만 잇는 체인 (거의 항상 null)
+
+        Leaf(Object key, int hash, Object value, Leaf next) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    //32개 자식 중 있는 것만 비트맵과 압축 배열로 보관. 자식은 Leaf 또는 Node
+    private static final class Node {
+        static final Node EMPTY = new Node(0, new Object[0]);
+
+        final int bitmap;
+        final Object[] children;
+
+        Node(int bitmap, Object[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        static Node of(Leaf leaf, int shift) {
+            return new Node(bit(leaf.hash, shift), new Object[]{leaf});
+        }
+
+        private static int bit(int hash, int shift) {
+            return 1 << ((hash >>> shift) & MASK);
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        Object get(Object key, int hash, int shift) {
+            Node node = this;
+            while (true) {
+                int bit = bit(hash, shift);
+                if ((node.bitmap & bit) == 0)
+                    return null;
+                Object child = node.children[node.index(bit)];
+                if (child instanceof Node) {
+                    node = (Node) child;
+                    shift += BITS;
+                    continue;
+                }
+                for (Leaf leaf = (Leaf) child; leaf != null; leaf = leaf.next) {
+                    if (leaf.hash == hash && leaf.key.equals(key))
+                        return leaf.value;
+                }
+                return null;
+            }
+        }
+
+        Node put(Object key, Object value, int hash, int shift, Object[] old, boolean[] added) {
+            int bit = bit(hash, shift);
+            int i = index(bit);
+            if ((bitmap & bit) == 0) {
+                added[0] = true;
+                Object[] copy = new Object[children.length + 1];
+                System.arraycopy(children, 0, copy, 0, i);
+                copy[i] = new Leaf(key, hash, value, null);
+                System.arraycopy(children, i, copy, i + 1, children.length - i);
+                return new Node(bitmap | bit, copy);
+            }
+            Object child = children[i];
+            Object newChild;
+            if (child instanceof Node) {
+                newChild = ((Node) child).put(key, value, hash, shift + BITS, old, added);
+            } else {
+                Leaf leaf = (Leaf) child;
+                if (leaf.hash == hash) {
+                    newChild = replaceInChain(leaf, key, value, hash, old, added);
+                } else {
+                    //해시가 다른 두 키가 같은 칸에 오면 아래 단계로 내려 갈라 놓음
+                    added[0] = true;
+                    newChild = split(leaf, new Leaf(key, hash, value, null), shift + BITS);
+                }
+            }
+            if (newChild == child)
+                return this;
+            //바뀐 경로의 노드만 복사하고 나머지 자식은 공유
+            Object[] copy = children.clone();
+            copy[i] = newChild;
+            return new Node(bitmap, copy);
+        }
+
+        //해시가 같은 체인에서 키를 찾아 값을 바꾼 새 체인을 만듦 (없으면 앞에 붙임)
+        private static Leaf replaceInChain(Leaf chain, Object key, Object value, int hash, Object[] old, boolean[] added) {
+            for (Leaf p = chain; p != null; p = p.next) {
+                if (p.key.equals(key)) {
+                    old[0] = p.value;
+                    if (p.value == value)
+                        return chain;
+                    return copyChainReplacing(chain, p, new Leaf(key, hash, value, p.next));
+                }
+            }
+            added[0] = true;
+            return new Leaf(key, hash, value, chain);
+        }
+
+        //chain 에서 target 앞까지 복사하고 target 자리에 replacement 를 이음 (replacement 가 target 뒤를 이미 가리킴)
+        private static Leaf copyChainReplacing(Leaf chain, Leaf target, Leaf replacement) {
+            if (chain == target)
+                return replacement;
+            return new Leaf(chain.key, chain.hash, chain.value, copyChainReplacing(chain.next, target, replacement));
+        }
+
+        private static Object split(Leaf a, Leaf b, int shift) {
+            int bitA = bit(a.hash, shift);
+            int bitB = bit(b.hash, shift);
+            if (bitA == bitB)
+                return new Node(bitA, new Object[]{split(a, b, shift + BITS)});
+            Object[] children = Integer.compareUnsigned(bitA, bitB) < 0 ? new Object[]{a, b} : new Object[]{b, a};
+            return new Node(bitA | bitB, children);
+        }
+
+        //자식이 모두 사라지면 null, Leaf 하나만 남으면 그 Leaf 를 돌려 부모 칸으로 끌어올림
+        //(Leaf 의 위치는 부모 칸의 해시 비트로 정해지므로 끌어올려도 get 경로가 그대로 맞음)
+        Object remove(Object key, int hash, int shift, Object[] old, boolean[] removed) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0)
+                return this;
+            int i = index(bit);
+            Object child = children[i];
+            Object newChild;
+            if (child instanceof Node) {
+                newChild = ((Node) child).remove(key, hash, shift + BITS, old, removed);
+            } else {
+                newChild = removeFromChain((Leaf) child, key, hash, old, removed);
+            }
+            if (newChild == child)
+                return this;
+            if (newChild != null) {
+                if (children.length == 1 && newChild instanceof Leaf)
+                    return newChild;
+                Object[] copy = children.clone();
+                copy[i] = newChild;
+                return new Node(bitmap, copy);
+            }
+            if (children.length == 1)
+                return null;
+            Object[] copy = new Object[children.length - 1];
+            System.arraycopy(children, 0, copy, 0, i);
+            System.arraycopy(children, i + 1, copy, i, children.length - i - 1);
+            if (copy.length == 1 && copy[0] instanceof Leaf)
+                return copy[0];
+            return new Node(bitmap & ~bit, copy);
+        }
+
+        private static Leaf removeFromChain(Leaf chain, Object key, int hash, Object[] old, boolean[] removed) {
+            if (chain.hash != hash)
+                return chain;
+            for (Leaf p = chain; p != null; p = p.next) {
+                if (p.key.equals(key)) {
+                    old[0] = p.value;
+                    removed[0] = true;
+                    return p == chain ? chain.next : copyChainReplacing(chain, p, p.next);
+                }
+            }
+            return chain;
+        }
+    }
+
+    public static void main(String[] args) {
+        PersistentHashTable table = new PersistentHashTable();
+        for (int i = 0; i < 5; i++)
+            table.put("키" + i, i);
+
+        PersistentHashTable snapshot = table.clone();
+        table.put("키0", 100);
+        table.remove("키1");
+
+        //복사본은 이후 변경의 영향을 받지 않음
+        System.out.println("원본: 키0=" + table.get("키0") + ", 키1=" + table.get("키1") + ", 크기 " + table.size());
+        System.out.println("복사본: 키0=" + snapshot.get("키0") + ", 키1=" + snapshot.get("키1") + ", 크기 " + snapshot.size());
+
+        //하나뿐인 키를 지운 뒤에도 get / put 이 동작해야 함
+        PersistentHashTable single = new PersistentHashTable();
+        single.put("k", 1);
+        single.remove("k");
+        System.out.println("빈 테이블: k=" + single.get("k") + ", 크기 " + single.size());
+        single.put("k", 2);
+        System.out.println("다시 put: k=" + single.get("k") + ", 크기 " + single.size());
+    }
+}
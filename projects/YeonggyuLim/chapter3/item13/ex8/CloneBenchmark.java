@@ -0,0 +1,111 @@
+package chapter3.item13.ex8;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Callable;
+
+public class CloneBenchmark {
+    //ex3(얕은 복사), ex4(재귀 깊은 복사), ex5(반복 깊은 복사) clone 을 표 크기와 체인 길이별로 비교
+    //측정 항목: clone 1회 시간(ns/op), clone 1회 할당량(B/op), ex4 가 스택 오버플로우 없이 복사하는 최대 체인 길이
+
+    private static final int[] ENTRIES = {1_000, 100_000};
+    private static final int[] CHAIN_LENGTHS = {1, 8, 64};
+    private static final int MAX_DEPTH = 1 << 22;
+
+    //현재 스레드가 할당한 바이트 수를 읽기 위해 HotSpot 확장 인터페이스 사용
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("방식 | 엔트리 수 | 체인 길이 | ns/op | B/op");
+        //JIT 워밍업을 위해 두 번 돌리고 두 번째 결과만 출력
+        for (int round = 0; round < 2; round++) {
+            boolean print = round == 1;
+            for (int entries : ENTRIES) {
+                for (int chain : CHAIN_LENGTHS) {
+                    int capacity = entries / chain;
+                    //키 i 는 i % capacity 번 버킷에 들어가므로 버킷마다 체인 길이가 chain 이 됨
+                    chapter3.item13.ex3.HashTable shallow = new chapter3.item13.ex3.HashTable(capacity);
+                    chapter3.item13.ex4.HashTable recursive = new chapter3.item13.ex4.HashTable(capacity);
+                    chapter3.item13.ex5.HashTable iterative = new chapter3.item13.ex5.HashTable(capacity);
+                    for (int i = 0; i < entries; i++) {
+                        shallow.add(i, i);
+                        recursive.add(i, i);
+                        iterative.add(i, i);
+                    }
+                    measure(print, "ex3 얕은 복사", entries, chain, shallow::clone);
+                    measure(print, "ex4 재귀 깊은 복사", entries, chain, recursive::clone);
+                    measure(print, "ex5 반복 깊은 복사", entries, chain, iterative::clone);
+                }
+            }
+        }
+
+        //스택 크기는 -Xss 와 JIT 컴파일 여부에 따라 달라지므로 실행 환경마다 다시 측정해야 함
+        System.out.println("ex4 최대 안전 체인 길이: " + maxSafeDepth());
+        System.out.println("ex5 체인 길이 " + MAX_DEPTH + " 복사: " + (copies(iterative(MAX_DEPTH)) ? "성공" : "실패"));
+    }
+
+    private static void measure(boolean print, String name, int entries, int chain,
+                                Callable<Object> clone) throws Exception {
+        //복사량이 달라도 측정 시간이 비슷하도록 엔트리 수에 반비례해 반복
+        int ops = Math.max(10, 10_000_000 / entries);
+        Object sink = null;
+        long threadId = Thread.currentThread().getId();
+        long allocated = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ops; i++)
+            sink = clone.call();
+        long elapsed = System.nanoTime() - start;
+        allocated = THREADS.getThreadAllocatedBytes(threadId) - allocated;
+        if (print && sink != null)
+            System.out.printf("%s | %d | %d | %.0f | %d%n", name, entries, chain,
+                    (double) elapsed / ops, allocated / ops);
+    }
+
+    //두 배씩 늘려 처음 실패하는 길이를 찾은 뒤 이분 탐색으로 경계를 좁힘
+    private static int maxSafeDepth() {
+        int ok = 0;
+        int fail = 1;
+        while (fail <= MAX_DEPTH && copies(recursive(fail))) {
+            ok = fail;
+            fail <<= 1;
+        }
+        if (fail > MAX_DEPTH)
+            return ok;
+        while (fail - ok > 1) {
+            int mid = (ok + fail) >>> 1;
+            if (copies(recursive(mid)))
+                ok = mid;
+            else
+                fail = mid;
+        }
+        return ok;
+    }
+
+    private static chapter3.item13.ex4.HashTable recursive(int depth) {
+        chapter3.item13.ex4.HashTable table = new chapter3.item13.ex4.HashTable(1);
+        for (int i = 0; i < depth; i++)
+            table.add(i, i);
+        return table;
+    }
+
+    private static chapter3.item13.ex5.HashTable iterative(int depth) {
+        chapter3.item13.ex5.HashTable table = new chapter3.item13.ex5.HashTable(1);
+        for (int i = 0; i < depth; i++)
+            table.add(i, i);
+        return table;
+    }
+
+    private static boolean copies(Object table) {
+        try {
+            if (table instanceof chapter3.item13.ex4.HashTable)
+                ((chapter3.item13.ex4.HashTable) table).clone();
+            else
+                ((chapter3.item13.ex5.HashTable) table).clone();
+            return true;
+        } catch (StackOverflowError e) {
+            return false;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError();
+        }
+    }
+}
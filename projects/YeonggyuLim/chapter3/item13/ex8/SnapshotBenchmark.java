@@ -0,0 +1,92 @@
+package chapter3.item13.ex8;
+
+import chapter3.item13.ex5.HashTable;
+import chapter3.item13.ex5.PersistentHashTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class SnapshotBenchmark {
+    //ex5 HashTable(반복 깊은 복사) 과 ex5 PersistentHashTable(구조 공유) 의 스냅숏 비용 비교
+    //- clone 1회 시간 (엔트리 수별)
+    //- 스냅숏을 찍고 원본을 한 번씩 바꾸기를 반복해 스냅숏 1,000개를 살려 둔 상태의 힙 사용량
+
+    private static final int[] ENTRIES = {1_000, 10_000, 100_000};
+    private static final int SNAPSHOTS = 1_000;
+    private static final Object[] SINK = new Object[16];
+
+    public static void main(String[] args) throws CloneNotSupportedException {
+        //clone 반복이 남긴 쓰레기가 메모리 측정을 흐리지 않도록 메모리부터 잼
+        int entries = 10_000;
+        System.out.println("=== 살아있는 스냅숏 " + SNAPSHOTS + "개의 메모리 (엔트리 " + entries + ") ===");
+        long base = usedMemory();
+        PersistentHashTable shared = new PersistentHashTable();
+        for (int i = 0; i < entries; i++)
+            shared.put(i, i);
+        List<PersistentHashTable> sharedSnapshots = new ArrayList<>(SNAPSHOTS);
+        for (int i = 0; i < SNAPSHOTS; i++) {
+            sharedSnapshots.add(shared.clone());
+            shared.put(i % entries, -(i + 1));
+        }
+        System.out.println("PersistentHashTable: " + (usedMemory() - base) / 1024 + "KB");
+
+        base = usedMemory();
+        HashTable deep = new HashTable(entries);
+        for (int i = 0; i < entries; i++)
+            deep.add(i, i);
+        List<Object> deepSnapshots = new ArrayList<>(SNAPSHOTS);
+        for (int i = 0; i < SNAPSHOTS; i++) {
+            deepSnapshots.add(deep.clone());
+            deep.add(entries + i, i); //ex5 는 값 교체가 없으므로 새 키를 추가
+        }
+        System.out.println("HashTable: " + (usedMemory() - base) / 1024 + "KB");
+
+        //스냅숏이 이후 변경의 영향을 받지 않는지 확인
+        System.out.println("첫 스냅숏의 0번 값(0이어야 함): " + sharedSnapshots.get(0).get(0)
+                + ", 원본: " + shared.get(0) + ", 깊은 복사 스냅숏 " + deepSnapshots.size() + "개");
+
+        System.out.println("\n=== clone 비용 ===");
+        System.out.println("엔트리 수 | HashTable ns/clone | PersistentHashTable ns/clone");
+        //JIT 워밍업을 위해 두 번 돌리고 두 번째 결과만 출력
+        for (int round = 0; round < 2; round++) {
+            for (int size : ENTRIES) {
+                HashTable deepTable = new HashTable(size);
+                PersistentHashTable sharedTable = new PersistentHashTable();
+                for (int i = 0; i < size; i++) {
+                    deepTable.add(i, i);
+                    sharedTable.put(i, i);
+                }
+                double deepNanos = measure(size, () -> {
+                    try {
+                        return deepTable.clone();
+                    } catch (CloneNotSupportedException e) {
+                        throw new AssertionError();
+                    }
+                });
+                double sharedNanos = measure(size, sharedTable::clone);
+                if (round == 1)
+                    System.out.printf("%d | %.0f | %.1f%n", size, deepNanos, sharedNanos);
+            }
+        }
+    }
+
+    //clone 결과를 정적 배열에 남겨 객체가 메서드 밖으로 나가게 하므로 JIT 가 할당을 지우지 못함
+    private static double measure(int entries, Supplier<Object> clone) {
+        int ops = Math.max(20, 10_000_000 / entries);
+        long start = System.nanoTime();
+        for (int i = 0; i < ops; i++)
+            SINK[i & (SINK.length - 1)] = clone.get();
+        long elapsed = System.nanoTime() - start;
+        if (SINK[0] == null)
+            throw new AssertionError();
+        return (double) elapsed / ops;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -1,34 +1,234 @@
 package chapter4.item18.ex2;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 //ForwardingSet 에 상속이 아닌 위임 즉 HashSet의 메서드만 호출해서 중복호출 할 일 없음
-public class InstrumentedSet<E> extends ForwardingSet<E>{
-    private int addCount = 0;
+//카운터는 스레드마다 따로 둔 칸(Cell)에만 쓰므로 여러 스레드가 동시에 세도 경합이 없고 값이 틀리지 않음
+//연산별 호출 수를 세고, 그 스레드의 호출 수가 sampleEvery 의 배수가 될 때만 시간을 재서 지연 분포(2의 거듭제곱 ns 구간)를 모음
+//즉 샘플링 안 하는 호출은 카운터 한 번 올리고 마스크 검사 한 번만 더 함 (난수, 공유 카운터 없음)
+//ITERATOR 는 iterator() 호출 수만 세며 순회한 원소 수(next 호출)는 세지 않음
+//snapshot 으로 모든 스레드의 칸을 더해 그 시점의 값을 읽음
+public class InstrumentedSet<E> extends ForwardingSet<E> {
+    public enum Operation {ADD, ADD_ALL, REMOVE, CONTAINS, ITERATOR}
+
+    //시각 읽기(System.nanoTime) 한 번이 수십 ns 라 64 번에 한 번만 재도 가벼운 HashSet 연산에는 10% 넘게 더해짐
+    private static final int DEFAULT_SAMPLE_EVERY = 1_024;
+    private static final int BUCKETS = 64; //i 번 구간: [2^(i-1), 2^i) ns
+    private static final int OPERATIONS = Operation.values().length;
+    private static final int ADD_ALL_ELEMENTS = OPERATIONS; //Cell.counts 의 마지막 칸: addAll 로 추가하려 한 원소 수
+
+    //주인 스레드만 쓰고 snapshot 은 다른 스레드에서 읽으므로 long 을 찢어지지 않게 opaque 로 읽고 씀 (x86 에서는 일반 mov)
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int sampleMask; //-1 이면 샘플링 끔
+    private final List<Cell> cells = new CopyOnWriteArrayList<>(); //스레드가 처음 쓸 때만 추가됨
+    private final ThreadLocal<Cell> localCell = ThreadLocal.withInitial(this::newCell);
+    private Cell firstCell; //처음 쓴 스레드의 칸은 ThreadLocal 을 거치지 않고 바로 찾음 (단일 스레드에서 주로 쓰는 경로)
+
+    //한 스레드의 카운터와 지연 분포. 주인 스레드만 씀
+    private static final class Cell {
+        final Thread owner = Thread.currentThread();
+        final long[] counts = new long[OPERATIONS + 1];
+        final long[] histogram = new long[OPERATIONS * BUCKETS];
+    }
+
     public InstrumentedSet(Set<E> s) {
+        this(s, DEFAULT_SAMPLE_EVERY);
+    }
+
+    //sampleEvery 는 2의 거듭제곱으로 올림. 0 이면 지연은 재지 않고 호출 수만 셈
+    public InstrumentedSet(Set<E> s, int sampleEvery) {
         super(s);
+        if (sampleEvery < 0)
+            throw new IllegalArgumentException("샘플 주기: " + sampleEvery);
+        sampleMask = sampleEvery == 0 ? -1 : Integer.highestOneBit(Math.min(sampleEvery, 1 << 30) * 2 - 1) - 1;
     }
 
+    //위임 호출을 메서드마다 한 곳에만 두어야 컴파일된 코드가 작아 호출하는 쪽에 인라인됨
+    //(시간 재는 경로와 안 재는 경로에 super 호출을 따로 두면 HashMap.putVal 등이 두 번 인라인돼 커짐)
     @Override
     public boolean add(E e) {
-        addCount++;
-        return super.add(e);
+        Cell cell = cell();
+        boolean sampled = count(cell, Operation.ADD);
+        long start = sampled ? System.nanoTime() : 0;
+        boolean result = super.add(e);
+        if (sampled)
+            record(cell, Operation.ADD, start);
+        return result;
     }
 
     @Override
     public boolean addAll(Collection<? extends E> c) {
-        addCount += c.size();
-        return super.addAll(c);
+        Cell cell = cell();
+        increase(cell, ADD_ALL_ELEMENTS, c.size());
+        boolean sampled = count(cell, Operation.ADD_ALL);
+        long start = sampled ? System.nanoTime() : 0;
+        boolean result = super.addAll(c);
+        if (sampled)
+            record(cell, Operation.ADD_ALL, start);
+        return result;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        Cell cell = cell();
+        boolean sampled = count(cell, Operation.REMOVE);
+        long start = sampled ? System.nanoTime() : 0;
+        boolean result = super.remove(o);
+        if (sampled)
+            record(cell, Operation.REMOVE, start);
+        return result;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        Cell cell = cell();
+        boolean sampled = count(cell, Operation.CONTAINS);
+        long start = sampled ? System.nanoTime() : 0;
+        boolean result = super.contains(o);
+        if (sampled)
+            record(cell, Operation.CONTAINS, start);
+        return result;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        Cell cell = cell();
+        boolean sampled = count(cell, Operation.ITERATOR);
+        long start = sampled ? System.nanoTime() : 0;
+        Iterator<E> result = super.iterator();
+        if (sampled)
+            record(cell, Operation.ITERATOR, start);
+        return result;
+    }
+
+    private Cell cell() {
+        Cell cell = firstCell;
+        if (cell != null && cell.owner == Thread.currentThread())
+            return cell;
+        return localCell.get();
+    }
+
+    private Cell newCell() {
+        Cell cell = new Cell();
+        cells.add(cell);
+        if (firstCell == null)
+            firstCell = cell; //Cell 의 필드는 모두 final 이라 다른 스레드가 이 참조를 봐도 owner 가 온전히 보임
+        return cell;
+    }
+
+    //호출 수를 올리고, 이 스레드에서 이 연산의 호출 수가 샘플 주기의 배수면 true (올린 카운터가 곧 샘플링 시계)
+    private boolean count(Cell cell, Operation op) {
+        return (increase(cell, op.ordinal(), 1) & sampleMask) == 0;
+    }
+
+    private static long increase(Cell cell, int index, long delta) {
+        long value = cell.counts[index] + delta;
+        LONGS.setOpaque(cell.counts, index, value);
+        return value;
     }
 
+    private static void record(Cell cell, Operation op, long start) {
+        long nanos = System.nanoTime() - start;
+        int i = op.ordinal() * BUCKETS + Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+        LONGS.setOpaque(cell.histogram, i, cell.histogram[i] + 1);
+    }
+
+    private long sum(int index) {
+        long sum = 0;
+        for (Cell cell : cells)
+            sum += (long) LONGS.getOpaque(cell.counts, index);
+        return sum;
+    }
+
+    //int 를 넘으면 잘림 (정확한 값은 snapshot().addCount())
     public int getAddCount() {
-        return addCount;
+        return (int) addCount();
     }
 
-    public static void main(String[] args) {
+    private long addCount() {
+        return sum(Operation.ADD.ordinal()) + sum(ADD_ALL_ELEMENTS);
+    }
+
+    //각 카운터를 차례로 읽으므로 동시에 바뀌는 중이면 카운터끼리 조금 어긋날 수 있음
+    public Snapshot snapshot() {
+        Map<Operation, Long> countCopy = new EnumMap<>(Operation.class);
+        Map<Operation, long[]> histogramCopy = new EnumMap<>(Operation.class);
+        for (Operation op : Operation.values()) {
+            countCopy.put(op, sum(op.ordinal()));
+            long[] copy = new long[BUCKETS];
+            for (Cell cell : cells) {
+                for (int i = 0; i < BUCKETS; i++)
+                    copy[i] += (long) LONGS.getOpaque(cell.histogram, op.ordinal() * BUCKETS + i);
+            }
+            histogramCopy.put(op, copy);
+        }
+        return new Snapshot(countCopy.get(Operation.ADD) + sum(ADD_ALL_ELEMENTS), countCopy, histogramCopy);
+    }
+
+    //어느 시점의 호출 수와 지연 분포를 담은 불변 객체
+    public static final class Snapshot {
+        private final long addCount;
+        private final Map<Operation, Long> counts;
+        private final Map<Operation, long[]> histograms;
+
+        private Snapshot(long addCount, Map<Operation, Long> counts, Map<Operation, long[]> histograms) {
+            this.addCount = addCount;
+            this.counts = counts;
+            this.histograms = histograms;
+        }
+
+        public long addCount() {
+            return addCount;
+        }
+
+        public long count(Operation op) {
+            return counts.get(op);
+        }
+
+        //시간을 잰 호출 수
+        public long sampled(Operation op) {
+            long n = 0;
+            for (long c : histograms.get(op))
+                n += c;
+            return n;
+        }
+
+        //p (0~1) 분위 지연의 상한(ns). 구간 단위라 실제 값보다 최대 2배까지 크게 나옴. 샘플이 없으면 0
+        public long percentileNanos(Operation op, double p) {
+            long[] buckets = histograms.get(op);
+            long target = (long) Math.ceil(sampled(op) * p);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= target && seen > 0)
+                    return i == 0 ? 0 : 1L << i;
+            }
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("추가한 원소 " + addCount);
+            for (Operation op : Operation.values()) {
+                sb.append(String.format("%n%s: 호출 %d, 샘플 %d, p50 <= %dns, p99 <= %dns", op, count(op),
+                        sampled(op), percentileNanos(op, 0.5), percentileNanos(op, 0.99)));
+            }
+            return sb.toString();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
         Set<String> hashSet = new HashSet<>();
         InstrumentedSet<String> instrumentedSet = new InstrumentedSet<>(hashSet);
 
@@ -38,5 +238,22 @@ public class InstrumentedSet<E> extends ForwardingSet<E>{
         for (String s : instrumentedSet) {
             System.out.println(s);
         }
+
+        //여러 스레드가 동시에 add 해도 카운트가 맞는지 확인 (위임 대상도 동시성 Set 이어야 함)
+        InstrumentedSet<Integer> concurrentSet = new InstrumentedSet<>(ConcurrentHashMap.newKeySet(), 16);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int base = t * 1_000_000;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 250_000; i++) {
+                    concurrentSet.add(base + i);
+                    concurrentSet.contains(i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+        System.out.println(concurrentSet.snapshot()); //ADD 호출 1,000,000
     }
 }
@@ -0,0 +1,85 @@
+package chapter4.item18.ex2;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class InstrumentedSetBenchmark {
+    //계측 없는 ForwardingSet 과 InstrumentedSet 의 contains + add 한 쌍당 시간 비교
+    //샘플링 주기별로 재서 계측 비용(%)을 구함. 목표는 기본 주기(1024)에서 5% 미만
+    //계측 비용은 연산마다 거의 일정하므로(스레드별 카운터 증가 한 번 + 마스크 검사) 위임 대상 연산이 가벼울수록 비율이 커짐
+    //그래서 가벼운 HashSet<Integer> 와 무거운 TreeSet<String> 두 가지로 잼
+    //add 는 이미 있는 원소라 크기가 바뀌지 않음
+    //한 번 재는 값은 ±10% 넘게 흔들리므로 ForwardingSet, 비교 대상, ForwardingSet 순서로 번갈아 재서
+    //앞뒤 ForwardingSet 평균 대비 비율을 PAIRS 번 구하고 그 중앙값을 씀
+    //measure 의 호출 지점이 두 구현만 보도록(bimorphic 인라인 유지) 비교 대상은 모두 InstrumentedSet 으로만 둠
+
+    private static final int SIZE = 100_000;
+    private static final int PAIRS = 21;
+    private static final int[] SAMPLE_EVERY = {0, 1_024, 64, 1};
+
+    public static void main(String[] args) {
+        Set<Integer> hashSet = new HashSet<>();
+        Integer[] ints = new Integer[SIZE * 2]; //절반은 없는 키
+        Set<String> treeSet = new TreeSet<>();
+        String[] strings = new String[SIZE * 2];
+        for (int i = 0; i < SIZE * 2; i++) {
+            ints[i] = i;
+            strings[i] = "사용자-" + (i * 0x9E3779B9L & 0xFFFFFFFFL);
+            if (i < SIZE) {
+                hashSet.add(ints[i]);
+                treeSet.add(strings[i]);
+            }
+        }
+
+        //JIT 워밍업을 위해 두 번 돌리고 두 번째 결과만 출력
+        for (int round = 0; round < 2; round++) {
+            boolean print = round == 1;
+            //TreeSet 은 연산 하나가 훨씬 무거우므로 횟수를 줄여 측정 시간을 맞춤
+            run(print, "HashSet<Integer>", hashSet, ints, 1_000_000);
+            run(print, "TreeSet<String>", treeSet, strings, 50_000);
+        }
+    }
+
+    private static <T> void run(boolean print, String name, Set<T> backing, T[] keys, int ops) {
+        if (print) {
+            System.out.println("\n=== " + name + " ===");
+            System.out.println("구현 | ns/op | 계측 비용 (중앙값)");
+        }
+        for (int sampleEvery : SAMPLE_EVERY) {
+            compare(print, "InstrumentedSet (샘플 " + (sampleEvery == 0 ? "끔" : "1/" + sampleEvery) + ")",
+                    backing, new InstrumentedSet<>(backing, sampleEvery), keys, ops);
+        }
+    }
+
+    private static <T> void compare(boolean print, String name, Set<T> backing, Set<T> set, T[] keys, int ops) {
+        Set<T> bare = new ForwardingSet<>(backing);
+        double[] nanos = new double[PAIRS];
+        double[] ratios = new double[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            double before = measure(bare, keys, ops);
+            nanos[i] = measure(set, keys, ops);
+            double after = measure(bare, keys, ops);
+            ratios[i] = nanos[i] / ((before + after) / 2);
+        }
+        Arrays.sort(nanos);
+        Arrays.sort(ratios);
+        if (print)
+            System.out.printf("%s | %.2f | %+.1f%%%n", name, nanos[PAIRS / 2], (ratios[PAIRS / 2] - 1) * 100);
+    }
+
+    private static <T> double measure(Set<T> set, T[] keys, int ops) {
+        int hits = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            if (set.contains(keys[i % keys.length]))
+                hits++;
+            set.add(keys[i % SIZE]);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (hits == 0)
+            throw new AssertionError();
+        return (double) elapsed / ops;
+    }
+}
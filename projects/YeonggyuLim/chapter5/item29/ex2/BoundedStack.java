@@ -0,0 +1,127 @@
+package chapter5.item29.ex2;
+
+import java.lang.management.ManagementFactory;
+import java.util.EmptyStackException;
+import java.util.function.Consumer;
+
+public class BoundedStack<E> {
+    //용량이 고정된 원형 배열 스택
+    //가득 찬 상태에서 push 하면 가장 오래된(맨 아래) 원소를 덮어씀 (되돌리기 이력처럼 최근 것만 남기면 되는 경우)
+    //배열은 생성자에서 한 번만 만들고 다시 할당하지 않으며, push / pop 도 객체를 만들지 않음
+    //밀려난 원소 수를 세고, 원하면 밀려날 때마다 콜백을 부름
+
+    private final E[] elements;
+    private int bottom = 0;   //맨 아래 원소의 위치
+    private int size = 0;
+    private long evictionCount = 0;
+    private final Consumer<? super E> onEvict;
+
+    public BoundedStack(int capacity) {
+        this(capacity, null);
+    }
+
+    //onEvict 는 밀려난 원소를 받음 (null 이면 부르지 않음)
+    @SuppressWarnings("unchecked")
+    public BoundedStack(int capacity, Consumer<? super E> onEvict) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("용량: " + capacity);
+        //직접 제네릭 타입 배열을 생성할 수 없으므로 Object 타입으로 만들고 캐스팅해서 우회
+        elements = (E[]) new Object[capacity];
+        this.onEvict = onEvict;
+    }
+
+    public void push(E e) {
+        if (size == elements.length) {
+            //가득 참: 맨 아래 칸을 새 맨 위로 쓰고 bottom 을 한 칸 올림
+            E evicted = elements[bottom];
+            elements[bottom] = e;
+            bottom = next(bottom);
+            evictionCount++;
+            if (onEvict != null)
+                onEvict.accept(evicted);
+            return;
+        }
+        elements[index(size++)] = e;
+    }
+
+    public E pop() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        int top = index(--size);
+        E result = elements[top];
+        elements[top] = null;
+        return result;
+    }
+
+    public E peek() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        return elements[index(size - 1)];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+
+    //가득 차서 밀려난 원소 수 (누적)
+    public long evictionCount() {
+        return evictionCount;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++)
+            elements[index(i)] = null;
+        bottom = 0;
+        size = 0;
+    }
+
+    //아래에서 offset 번째 원소의 배열 위치 (나머지 연산 대신 한 번만 빼서 접음)
+    private int index(int offset) {
+        int i = bottom + offset;
+        return i >= elements.length ? i - elements.length : i;
+    }
+
+    private int next(int i) {
+        return ++i == elements.length ? 0 : i;
+    }
+
+    public static void main(String[] args) {
+        BoundedStack<String> undo = new BoundedStack<>(3, e -> System.out.println("이력에서 밀려남: " + e));
+        for (String edit : new String[]{"입력 a", "입력 b", "삭제", "붙여넣기", "입력 c"})
+            undo.push(edit);
+        System.out.println("밀려난 수: " + undo.evictionCount());
+        while (!undo.isEmpty())
+            System.out.println("되돌리기: " + undo.pop()); //입력 c, 붙여넣기, 삭제
+
+        //가득 찬 상태의 push 와 pop 이 할당하지 않는지 확인
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        BoundedStack<Object> stack = new BoundedStack<>(1_000);
+        Object value = "편집";
+        int ops = 10_000_000;
+        for (int round = 0; round < 2; round++) { //JIT 워밍업을 위해 두 번 돌리고 두 번째 결과만 출력
+            long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            long start = System.nanoTime();
+            for (int i = 0; i < ops; i++) {
+                stack.push(value);
+                if ((i & 3) == 3)
+                    stack.pop();
+            }
+            long nanos = System.nanoTime() - start;
+            long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+            if (round == 1)
+                System.out.printf("push %d회: %.1f ns/op, %.3f B/op, 밀려난 수 %d%n", ops,
+                        (double) nanos / ops, (double) allocated / ops, stack.evictionCount());
+        }
+    }
+}
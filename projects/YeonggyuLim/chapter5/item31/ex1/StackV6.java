@@ -0,0 +1,126 @@
+package chapter5.item31.ex1;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EmptyStackException;
+import java.util.List;
+import java.util.RandomAccess;
+
+public class StackV6<E> {
+    //StackV5 에 대량 전송 API 추가
+    //pushAll 은 크기를 아는 원본이면 공간을 한 번만 확보하고 통째로 복사
+    //drainTo 는 꺼낼 구간을 pop 순서로 뒤집은 블록 하나로 만들어 dst 에 한 번에 추가
+    //peekAll 은 복사 없이 위에서부터 보여 주는 읽기 전용 뷰
+    private E[] elements;
+    private int size = 0;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    @SuppressWarnings("unchecked")
+    public StackV6() {
+        elements = (E[]) new Object[DEFAULT_INITIAL_CAPACITY];
+    }
+
+    public void push(E e) {
+        ensureCapacity(size + 1);
+        elements[size++] = e;
+    }
+
+    public E pop() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        E result = elements[--size];
+        elements[size] = null;
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (elements.length < minCapacity) {
+            elements = Arrays.copyOf(elements, Math.max(2 * size + 1, minCapacity));
+        }
+    }
+
+    //Collection 이면 toArray 로 한 번에 받아 복사, 아니면 하나씩 push
+    public void pushAll(Iterable<? extends E> src) {
+        if (src instanceof Collection) {
+            Object[] array = ((Collection<? extends E>) src).toArray();
+            ensureCapacity(size + array.length);
+            System.arraycopy(array, 0, elements, size, array.length);
+            size += array.length;
+            return;
+        }
+        for (E e : src) {
+            push(e);
+        }
+    }
+
+    //배열은 공변이므로 E 의 하위 타입 배열도 받을 수 있음
+    public void pushAll(E[] src) {
+        ensureCapacity(size + src.length);
+        System.arraycopy(src, 0, elements, size, src.length);
+        size += src.length;
+    }
+
+    public void popAll(Collection<? super E> dst) {
+        drainTo(dst, size);
+    }
+
+    //최대 max 개를 pop 순서대로 dst 에 넣고 넣은 개수를 반환
+    public int drainTo(Collection<? super E> dst, int max) {
+        if (max < 0)
+            throw new IllegalArgumentException("max: " + max);
+        int n = Math.min(max, size);
+        Object[] block = new Object[n];
+        for (int i = 0; i < n; i++) {
+            block[i] = elements[size - 1 - i];
+        }
+        @SuppressWarnings("unchecked")
+        List<E> view = (List<E>) Arrays.asList(block);
+        dst.addAll(view);
+        //다 쓴 참조 해제 (아이템 7)
+        Arrays.fill(elements, size - n, size, null);
+        size -= n;
+        return n;
+    }
+
+    //0번이 맨 위 원소인 읽기 전용 뷰. 스택이 바뀌면 뷰에도 바로 반영됨
+    public List<E> peekAll() {
+        return new PeekView();
+    }
+
+    private final class PeekView extends AbstractList<E> implements RandomAccess {
+        @Override
+        public E get(int index) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("인덱스: " + index + ", 크기: " + size);
+            return elements[size - 1 - index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    public static void main(String[] args) {
+        StackV6<Number> stackV6 = new StackV6<>();
+
+        stackV6.pushAll(Arrays.asList(1, 2, 3));
+        stackV6.pushAll(new Double[]{1.1, 2.2, 3.3});
+        System.out.println(stackV6.peekAll());
+
+        Collection<Object> objects = new ArrayList<>();
+        stackV6.drainTo(objects, 4);
+        System.out.println(objects + " 남은 원소: " + stackV6.peekAll());
+    }
+}
@@ -0,0 +1,53 @@
+package chapter5.item31.ex1;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class StackV6Benchmark {
+    //원소 10개 ~ 1,000만 개를 pushAll 로 넣고 popAll / drainTo 로 꺼내는 전송 시간을 StackV5 와 비교
+    //크기마다 옮기는 원소 총량이 비슷하도록 반복 횟수를 조절
+
+    private static final int[] SIZES = {10, 1_000, 100_000, 10_000_000};
+    private static final long TOTAL_ELEMENTS = 20_000_000;
+
+    public static void main(String[] args) {
+        List<Integer> source = new ArrayList<>(SIZES[SIZES.length - 1]);
+        Integer value = 1_000;
+        for (int i = 0; i < SIZES[SIZES.length - 1]; i++)
+            source.add(value);
+
+        System.out.println("원소 수 | StackV5 ns/원소 | StackV6 ns/원소");
+        //JIT 워밍업을 위해 두 번 돌리고 두 번째 결과만 출력
+        for (int round = 0; round < 2; round++) {
+            for (int size : SIZES) {
+                List<Integer> src = source.subList(0, size);
+                List<Integer> dst = new ArrayList<>(size);
+                int reps = (int) Math.max(1, TOTAL_ELEMENTS / size);
+
+                long start = System.nanoTime();
+                for (int r = 0; r < reps; r++) {
+                    StackV5<Integer> stack = new StackV5<>();
+                    stack.pushAll(src);
+                    dst.clear();
+                    stack.popAll(dst);
+                }
+                long v5 = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (int r = 0; r < reps; r++) {
+                    StackV6<Integer> stack = new StackV6<>();
+                    stack.pushAll(src);
+                    dst.clear();
+                    stack.popAll(dst);
+                }
+                long v6 = System.nanoTime() - start;
+
+                if (dst.size() != size)
+                    throw new AssertionError("꺼낸 원소 " + dst.size() + "개");
+                if (round == 1)
+                    System.out.printf("%d | %.2f | %.2f%n", size,
+                            (double) v5 / reps / size, (double) v6 / reps / size);
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package chapter5.item31.ex10;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EmptyStackException;
+import java.util.List;
+import java.util.function.BinaryOperator;
+
+public class AggregateStack<E> {
+    //StackV5 와 같은 API 에 최솟값, 최댓값, 사용자 접기(fold) 결과를 O(1)로 돌려주는 스택
+    //원소마다 "바닥부터 그 원소까지"의 최솟값 위치, 최댓값 위치, 접기 결과를 옆에 같이 저장
+    //pop 은 맨 위 칸을 버리기만 하면 바로 아래 칸에 그 시점의 집계가 남아 있으므로 다시 계산할 필요가 없음
+    //접기 함수는 결합 법칙만 만족하면 되며 바닥에서 위 방향으로 fold(아래 결과, 새 원소) 순서로 적용
+
+    private E[] elements;
+    private E[] folds;        //folds[i] = 바닥부터 i 번째까지 접은 결과 (접기 함수가 없으면 만들지 않음)
+    private int[] minIndex;   //minIndex[i] = 바닥부터 i 번째까지 중 최솟값의 위치
+    private int[] maxIndex;
+    private int size = 0;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    private final Comparator<? super E> comparator;
+    private final BinaryOperator<E> fold;
+
+    //접기 없이 최솟값, 최댓값만 쓸 때 (aggregate 는 IllegalStateException)
+    public AggregateStack(Comparator<? super E> comparator) {
+        this(comparator, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public AggregateStack(Comparator<? super E> comparator, BinaryOperator<E> fold) {
+        this.comparator = comparator;
+        this.fold = fold;
+        elements = (E[]) new Object[DEFAULT_INITIAL_CAPACITY];
+        folds = fold == null ? null : (E[]) new Object[DEFAULT_INITIAL_CAPACITY];
+        minIndex = new int[DEFAULT_INITIAL_CAPACITY];
+        maxIndex = new int[DEFAULT_INITIAL_CAPACITY];
+    }
+
+    public void push(E e) {
+        ensureCapacity();
+        int i = size;
+        elements[i] = e;
+        if (i == 0) {
+            if (folds != null)
+                folds[i] = e;
+            minIndex[i] = i;
+            maxIndex[i] = i;
+        } else {
+            if (folds != null)
+                folds[i] = fold.apply(folds[i - 1], e);
+            //같은 값이면 아래 원소의 위치를 유지
+            minIndex[i] = comparator.compare(e, elements[minIndex[i - 1]]) < 0 ? i : minIndex[i - 1];
+            maxIndex[i] = comparator.compare(e, elements[maxIndex[i - 1]]) > 0 ? i : maxIndex[i - 1];
+        }
+        size++;
+    }
+
+    public E pop() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        E result = elements[--size];
+        elements[size] = null;
+        if (folds != null)
+            folds[size] = null;
+        return result;
+    }
+
+    public E peek() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        return elements[size - 1];
+    }
+
+    public E min() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        return elements[minIndex[size - 1]];
+    }
+
+    public E max() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        return elements[maxIndex[size - 1]];
+    }
+
+    //바닥부터 맨 위까지 접은 결과
+    public E aggregate() {
+        if (folds == null)
+            throw new IllegalStateException("접기 함수 없이 만든 스택");
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        return folds[size - 1];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void ensureCapacity() {
+        if (elements.length == size) {
+            int capacity = 2 * size + 1;
+            elements = Arrays.copyOf(elements, capacity);
+            if (folds != null)
+                folds = Arrays.copyOf(folds, capacity);
+            minIndex = Arrays.copyOf(minIndex, capacity);
+            maxIndex = Arrays.copyOf(maxIndex, capacity);
+        }
+    }
+
+    public void pushAll(Iterable<? extends E> src) {
+        for (E e : src) {
+            push(e);
+        }
+    }
+
+    public void popAll(Collection<? super E> dst) {
+        while (!isEmpty()) {
+            dst.add(pop());
+        }
+    }
+
+    public static void main(String[] args) {
+        //문자열 스택: 사전순 최솟값 / 최댓값, 접기는 이어 붙이기
+        AggregateStack<String> stack = new AggregateStack<>(Comparator.naturalOrder(), String::concat);
+        stack.pushAll(Arrays.asList("m", "c", "x", "a"));
+        System.out.println("min " + stack.min() + ", max " + stack.max() + ", 접기 " + stack.aggregate()); //a, x, mcxa
+        stack.pop();
+        stack.pop();
+        System.out.println("min " + stack.min() + ", max " + stack.max() + ", 접기 " + stack.aggregate()); //c, m, mc
+
+        List<Object> rest = new ArrayList<>();
+        stack.popAll(rest);
+        System.out.println(rest);
+    }
+}
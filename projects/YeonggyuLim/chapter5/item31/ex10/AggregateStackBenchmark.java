@@ -0,0 +1,80 @@
+package chapter5.item31.ex10;
+
+import chapter5.item31.ex1.StackV5;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+public class AggregateStackBenchmark {
+    //push 할 때마다 최댓값을 묻는 상황에서 조회 한 번의 비용 비교
+    //- StackV5: 원소를 popAll 로 꺼내 훑은 뒤 다시 쌓음 (깊이에 비례)
+    //- AggregateStack<Long>, LongAggregateStack: 맨 위 칸의 집계를 읽음 (깊이와 무관)
+
+    private static final int[] DEPTHS = {100, 1_000, 10_000};
+
+    public static void main(String[] args) {
+        System.out.println("깊이 | StackV5 스캔 ns/max | AggregateStack ns/max | LongAggregateStack ns/max");
+        //JIT 워밍업을 위해 두 번 돌리고 두 번째 결과만 출력
+        for (int round = 0; round < 2; round++) {
+            for (int depth : DEPTHS) {
+                double scan = scan(depth);
+                double boxed = boxed(depth);
+                double primitive = primitive(depth);
+                if (round == 1)
+                    System.out.printf("%d | %.1f | %.1f | %.1f%n", depth, scan, boxed, primitive);
+            }
+        }
+    }
+
+    private static long value(int i) {
+        return (i * 0x9E3779B97F4A7C15L) >>> 20; //순서가 섞인 값
+    }
+
+    private static double scan(int depth) {
+        StackV5<Long> stack = new StackV5<>();
+        List<Long> buffer = new ArrayList<>(depth);
+        long check = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < depth; i++) {
+            stack.push(value(i));
+            buffer.clear();
+            stack.popAll(buffer);
+            check += Collections.max(buffer);
+            for (int j = buffer.size() - 1; j >= 0; j--)
+                stack.push(buffer.get(j));
+        }
+        return result(start, depth, check);
+    }
+
+    private static double boxed(int depth) {
+        AggregateStack<Long> stack = new AggregateStack<>(Comparator.naturalOrder());
+        long check = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < depth; i++) {
+            stack.push(value(i));
+            check += stack.max();
+        }
+        return result(start, depth, check);
+    }
+
+    private static double primitive(int depth) {
+        LongAggregateStack stack = new LongAggregateStack();
+        long check = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < depth; i++) {
+            stack.push(value(i));
+            check += stack.max();
+        }
+        return result(start, depth, check);
+    }
+
+    //push 시간까지 포함한 조회 한 번당 시간. check 는 계산이 지워지지 않도록 씀
+    private static double result(long start, int depth, long check) {
+        double nanos = (double) (System.nanoTime() - start) / depth;
+        if (check == 42)
+            System.out.println();
+        return nanos;
+    }
+}
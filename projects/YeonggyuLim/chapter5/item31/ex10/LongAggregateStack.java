@@ -0,0 +1,135 @@
+package chapter5.item31.ex10;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+import java.util.function.LongBinaryOperator;
+
+public class LongAggregateStack {
+    //AggregateStack 의 long 전용판. 원소와 집계를 모두 long[] 에 저장해 박싱이 없음
+    //원소마다 바닥부터 그 원소까지의 최솟값, 최댓값, 합, 접기 결과를 같이 저장하므로 조회는 모두 O(1)
+    //합은 long 범위를 넘으면 일반 long 덧셈처럼 넘침
+
+    private long[] elements;
+    private long[] mins;
+    private long[] maxs;
+    private long[] sums;
+    private long[] folds;     //접기 함수가 없으면 만들지 않음
+    private int size = 0;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    private final LongBinaryOperator fold;
+
+    public LongAggregateStack() {
+        this(null);
+    }
+
+    //fold 는 결합 법칙을 만족해야 하며 fold(아래 결과, 새 원소) 순서로 적용
+    public LongAggregateStack(LongBinaryOperator fold) {
+        this.fold = fold;
+        elements = new long[DEFAULT_INITIAL_CAPACITY];
+        mins = new long[DEFAULT_INITIAL_CAPACITY];
+        maxs = new long[DEFAULT_INITIAL_CAPACITY];
+        sums = new long[DEFAULT_INITIAL_CAPACITY];
+        folds = fold == null ? null : new long[DEFAULT_INITIAL_CAPACITY];
+    }
+
+    public void push(long e) {
+        ensureCapacity();
+        int i = size;
+        elements[i] = e;
+        if (i == 0) {
+            mins[i] = e;
+            maxs[i] = e;
+            sums[i] = e;
+            if (folds != null)
+                folds[i] = e;
+        } else {
+            mins[i] = Math.min(mins[i - 1], e);
+            maxs[i] = Math.max(maxs[i - 1], e);
+            sums[i] = sums[i - 1] + e;
+            if (folds != null)
+                folds[i] = fold.applyAsLong(folds[i - 1], e);
+        }
+        size++;
+    }
+
+    //기본 타입이라 다 쓴 참조가 없으므로 null 처리가 필요 없음
+    public long pop() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        return elements[--size];
+    }
+
+    public long peek() {
+        checkNotEmpty();
+        return elements[size - 1];
+    }
+
+    public long min() {
+        checkNotEmpty();
+        return mins[size - 1];
+    }
+
+    public long max() {
+        checkNotEmpty();
+        return maxs[size - 1];
+    }
+
+    //비어 있으면 0
+    public long sum() {
+        return size == 0 ? 0 : sums[size - 1];
+    }
+
+    public long aggregate() {
+        if (folds == null)
+            throw new IllegalStateException("접기 함수 없이 만든 스택");
+        checkNotEmpty();
+        return folds[size - 1];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+    }
+
+    private void ensureCapacity() {
+        if (elements.length == size) {
+            int capacity = 2 * size + 1;
+            elements = Arrays.copyOf(elements, capacity);
+            mins = Arrays.copyOf(mins, capacity);
+            maxs = Arrays.copyOf(maxs, capacity);
+            sums = Arrays.copyOf(sums, capacity);
+            if (folds != null)
+                folds = Arrays.copyOf(folds, capacity);
+        }
+    }
+
+    public static void main(String[] args) {
+        //접기로 최대공약수를 유지
+        LongAggregateStack stack = new LongAggregateStack(LongAggregateStack::gcd);
+        for (long e : new long[]{12, 18, 30, 7})
+            stack.push(e);
+        System.out.printf("min %d, max %d, sum %d, gcd %d%n", stack.min(), stack.max(), stack.sum(), stack.aggregate()); //7, 30, 67, 1
+        stack.pop();
+        System.out.printf("min %d, max %d, sum %d, gcd %d%n", stack.min(), stack.max(), stack.sum(), stack.aggregate()); //12, 30, 60, 6
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
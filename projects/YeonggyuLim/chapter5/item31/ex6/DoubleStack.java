@@ -0,0 +1,73 @@
+package chapter5.item31.ex6;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+
+public class DoubleStack {
+    //StackV5<Double> 는 push 할 때마다 Double 로 박싱하므로 double[] 에 바로 저장하는 전용 스택
+    //push / pop / isEmpty / pushAll / popAll 모양은 StackV5 와 같음
+    private double[] elements;
+    private int size = 0;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    public DoubleStack() {
+        elements = new double[DEFAULT_INITIAL_CAPACITY];
+    }
+
+    public void push(double e) {
+        ensureCapacity(size + 1);
+        elements[size++] = e;
+    }
+
+    //기본 타입이라 다 쓴 참조가 없으므로 null 처리가 필요 없음
+    public double pop() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        return elements[--size];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (elements.length < minCapacity) {
+            elements = Arrays.copyOf(elements, Math.max(2 * size + 1, minCapacity));
+        }
+    }
+
+    //배열은 한 번에 공간을 확보하고 통째로 복사
+    public void pushAll(double... src) {
+        ensureCapacity(size + src.length);
+        System.arraycopy(src, 0, elements, size, src.length);
+        size += src.length;
+    }
+
+    //스트림도 박싱 없이 하나씩 push
+    public void pushAll(DoubleStream src) {
+        src.forEachOrdered(this::push);
+    }
+
+    //꺼낸 순서대로 dst 에 넘김 (Collection<? super Double> 대신 DoubleConsumer 로 박싱을 피함)
+    public void popAll(DoubleConsumer dst) {
+        while (!isEmpty()) {
+            dst.accept(pop());
+        }
+    }
+
+    public static void main(String[] args) {
+        DoubleStack stack = new DoubleStack();
+
+        stack.pushAll(1.1, 2.2, 3.3);
+        stack.pushAll(DoubleStream.of(4.4, 5.5, 6.6));
+
+        stack.popAll(System.out::println);
+    }
+}
@@ -0,0 +1,73 @@
+package chapter5.item31.ex6;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+public class IntStack {
+    //StackV5<Integer> 는 push 할 때마다 Integer 로 박싱하므로 int[] 에 바로 저장하는 전용 스택
+    //push / pop / isEmpty / pushAll / popAll 모양은 StackV5 와 같음
+    private int[] elements;
+    private int size = 0;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    public IntStack() {
+        elements = new int[DEFAULT_INITIAL_CAPACITY];
+    }
+
+    public void push(int e) {
+        ensureCapacity(size + 1);
+        elements[size++] = e;
+    }
+
+    //기본 타입이라 다 쓴 참조가 없으므로 null 처리가 필요 없음
+    public int pop() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        return elements[--size];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (elements.length < minCapacity) {
+            elements = Arrays.copyOf(elements, Math.max(2 * size + 1, minCapacity));
+        }
+    }
+
+    //배열은 한 번에 공간을 확보하고 통째로 복사
+    public void pushAll(int... src) {
+        ensureCapacity(size + src.length);
+        System.arraycopy(src, 0, elements, size, src.length);
+        size += src.length;
+    }
+
+    //스트림도 박싱 없이 하나씩 push
+    public void pushAll(IntStream src) {
+        src.forEachOrdered(this::push);
+    }
+
+    //꺼낸 순서대로 dst 에 넘김 (Collection<? super Integer> 대신 IntConsumer 로 박싱을 피함)
+    public void popAll(IntConsumer dst) {
+        while (!isEmpty()) {
+            dst.accept(pop());
+        }
+    }
+
+    public static void main(String[] args) {
+        IntStack stack = new IntStack();
+
+        stack.pushAll(1, 2, 3);
+        stack.pushAll(IntStream.rangeClosed(4, 6));
+
+        stack.popAll(System.out::println);
+    }
+}
@@ -0,0 +1,96 @@
+package chapter5.item31.ex6;
+
+import chapter5.item31.ex1.StackV5;
+
+import java.lang.management.ManagementFactory;
+
+public class PrimitiveStackBenchmark {
+    //StackV5 에 박싱해서 넣을 때와 기본 타입 전용 스택의 push + pop 한 쌍당 시간(ns/op)과 할당량(B/op) 비교
+    //스택은 미리 키워 두므로 전용 스택의 할당량은 0이어야 함
+
+    private static final int DEPTH = 1_000;
+    private static final int ROUNDS = 10_000;
+
+    //현재 스레드가 할당한 바이트 수를 읽기 위해 HotSpot 확장 인터페이스 사용
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        StackV5<Integer> boxedInts = new StackV5<>();
+        StackV5<Double> boxedDoubles = new StackV5<>();
+        IntStack ints = new IntStack();
+        LongStack longs = new LongStack();
+        DoubleStack doubles = new DoubleStack();
+
+        System.out.println("스택 | ns/op | B/op");
+        //JIT 워밍업을 위해 두 번 돌리고 두 번째 결과만 출력
+        for (int round = 0; round < 2; round++) {
+            boolean print = round == 1;
+
+            long[] mark = start();
+            long sum = 0;
+            for (int r = 0; r < ROUNDS; r++) {
+                //Integer 캐시(-128~127) 밖의 값이 되도록 1,000 을 더함
+                for (int i = 0; i < DEPTH; i++)
+                    boxedInts.push(i + 1_000);
+                while (!boxedInts.isEmpty())
+                    sum += boxedInts.pop();
+            }
+            report(print, "StackV5<Integer>", mark, sum);
+
+            mark = start();
+            sum = 0;
+            for (int r = 0; r < ROUNDS; r++) {
+                for (int i = 0; i < DEPTH; i++)
+                    ints.push(i + 1_000);
+                while (!ints.isEmpty())
+                    sum += ints.pop();
+            }
+            report(print, "IntStack", mark, sum);
+
+            mark = start();
+            sum = 0;
+            for (int r = 0; r < ROUNDS; r++) {
+                for (int i = 0; i < DEPTH; i++)
+                    longs.push(i + 1_000);
+                while (!longs.isEmpty())
+                    sum += longs.pop();
+            }
+            report(print, "LongStack", mark, sum);
+
+            mark = start();
+            double total = 0;
+            for (int r = 0; r < ROUNDS; r++) {
+                for (int i = 0; i < DEPTH; i++)
+                    boxedDoubles.push(i + 0.5);
+                while (!boxedDoubles.isEmpty())
+                    total += boxedDoubles.pop();
+            }
+            report(print, "StackV5<Double>", mark, (long) total);
+
+            mark = start();
+            total = 0;
+            for (int r = 0; r < ROUNDS; r++) {
+                for (int i = 0; i < DEPTH; i++)
+                    doubles.push(i + 0.5);
+                while (!doubles.isEmpty())
+                    total += doubles.pop();
+            }
+            report(print, "DoubleStack", mark, (long) total);
+        }
+    }
+
+    //{시작 시각, 시작 시점 할당량}
+    private static long[] start() {
+        return new long[]{System.nanoTime(), THREADS.getThreadAllocatedBytes(Thread.currentThread().getId())};
+    }
+
+    //sum 은 JIT 가 반복문을 없애지 못하도록 결과를 사용하는 용도
+    private static void report(boolean print, String name, long[] mark, long sum) {
+        long elapsed = System.nanoTime() - mark[0];
+        long allocated = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) - mark[1];
+        long ops = (long) DEPTH * ROUNDS;
+        if (print && sum != 0)
+            System.out.printf("%s | %.2f | %.2f%n", name, (double) elapsed / ops, (double) allocated / ops);
+    }
+}
@@ -0,0 +1,151 @@
+package chapter5.item31.ex7;
+
+import java.util.Collection;
+import java.util.EmptyStackException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicStampedReference;
+
+public class ConcurrentStack<E> {
+    //StackV5 와 같은 API 를 락 없이 제공하는 Treiber 스택
+    //top 을 CAS 로 바꾸다 경합에 지면 소거(elimination) 배열에서 반대 연산을 기다렸다가 top 을 건드리지 않고 값을 주고받음
+    //push 한 값을 바로 pop 하는 것과 같으므로 두 연산이 그 시점에 일어난 것으로 볼 수 있음 (선형화 가능)
+    //null 은 pop 쪽이 교환에 내놓는 표시로 쓰므로 push 할 수 없음
+
+    private static final int SPINS = 128; //교환 슬롯에서 상대를 기다리는 횟수
+    private static final Object TIMED_OUT = new Object();
+
+    private static final class Node<E> {
+        final E item;
+        Node<E> next; //top 에 올리기 전에만 바꾸고, 올린 뒤에는 바뀌지 않음
+
+        Node(E item) {
+            this.item = item;
+        }
+    }
+
+    private final AtomicReference<Node<E>> top = new AtomicReference<>();
+    private final AtomicReferenceArray<Exchanger> eliminationArray;
+
+    //소거 배열 크기는 코어 수 정도가 적당 (0 이면 소거 없이 순수 Treiber 스택)
+    public ConcurrentStack() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ConcurrentStack(int eliminationSlots) {
+        if (eliminationSlots < 0)
+            throw new IllegalArgumentException("소거 슬롯 수: " + eliminationSlots);
+        eliminationArray = new AtomicReferenceArray<>(eliminationSlots);
+        for (int i = 0; i < eliminationSlots; i++)
+            eliminationArray.set(i, new Exchanger());
+    }
+
+    public void push(E e) {
+        if (e == null)
+            throw new NullPointerException();
+        Node<E> node = new Node<>(e);
+        while (true) {
+            Node<E> oldTop = top.get();
+            node.next = oldTop;
+            if (top.compareAndSet(oldTop, node))
+                return;
+            //경합에 졌으면 pop 하는 스레드와 직접 교환 시도 (상대가 null 을 내놓으면 pop 이 받아 간 것)
+            if (eliminationArray.length() > 0 && exchange(e) == null)
+                return;
+        }
+    }
+
+    public E pop() {
+        while (true) {
+            Node<E> oldTop = top.get();
+            if (oldTop == null)
+                throw new EmptyStackException();
+            if (top.compareAndSet(oldTop, oldTop.next))
+                return oldTop.item;
+            if (eliminationArray.length() > 0) {
+                Object other = exchange(null);
+                //상대가 push 하는 스레드면 그 값을 받음 (pop 끼리 만났거나 시간이 지나면 다시 시도)
+                if (other != null && other != TIMED_OUT) {
+                    @SuppressWarnings("unchecked")
+                    E result = (E) other;
+                    return result;
+                }
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return top.get() == null;
+    }
+
+    //임의의 슬롯에서 교환하고 상대가 내놓은 값을 반환 (시간이 지나면 TIMED_OUT)
+    private Object exchange(Object item) {
+        int slot = ThreadLocalRandom.current().nextInt(eliminationArray.length());
+        Object other = eliminationArray.get(slot).exchange(item);
+        //같은 쪽 연산끼리 만나면 교환은 무효 (push 끼리면 값이 사라지면 안 되므로 실패로 처리)
+        if (other == TIMED_OUT || (item == null) == (other == null))
+            return TIMED_OUT;
+        return other;
+    }
+
+    public void pushAll(Iterable<? extends E> src) {
+        for (E e : src) {
+            push(e);
+        }
+    }
+
+    //top 을 한 번에 비우고 떼어 낸 노드들을 차례로 넘기므로 다른 스레드의 pop 과 값이 겹치지 않음
+    public void popAll(Collection<? super E> dst) {
+        for (Node<E> n = top.getAndSet(null); n != null; n = n.next) {
+            dst.add(n.item);
+        }
+    }
+
+    //슬롯 하나에서 두 스레드가 값을 맞바꾸는 락 없는 교환기 (스탬프로 EMPTY / WAITING / BUSY 상태 표시)
+    private static final class Exchanger {
+        private static final int EMPTY = 0;
+        private static final int WAITING = 1;
+        private static final int BUSY = 2;
+
+        private final AtomicStampedReference<Object> slot = new AtomicStampedReference<>(null, EMPTY);
+
+        Object exchange(Object myItem) {
+            int[] stamp = new int[1];
+            for (int attempt = 0; attempt < SPINS; attempt++) {
+                Object yourItem = slot.get(stamp);
+                switch (stamp[0]) {
+                    case EMPTY:
+                        //먼저 온 쪽: 값을 걸어 두고 상대를 기다림
+                        if (slot.compareAndSet(yourItem, myItem, EMPTY, WAITING)) {
+                            for (int spin = 0; spin < SPINS; spin++) {
+                                yourItem = slot.get(stamp);
+                                if (stamp[0] == BUSY) {
+                                    slot.set(null, EMPTY);
+                                    return yourItem;
+                                }
+                                Thread.onSpinWait();
+                            }
+                            //기다리다 포기. 그 사이 상대가 왔다면 CAS 가 실패하므로 교환을 마무리
+                            if (slot.compareAndSet(myItem, null, WAITING, EMPTY))
+                                return TIMED_OUT;
+                            yourItem = slot.get(stamp);
+                            slot.set(null, EMPTY);
+                            return yourItem;
+                        }
+                        break;
+                    case WAITING:
+                        //나중에 온 쪽: 걸린 값을 가져가고 내 값을 남김
+                        if (slot.compareAndSet(yourItem, myItem, WAITING, BUSY))
+                            return yourItem;
+                        break;
+                    default:
+                        //다른 두 스레드가 교환 중
+                        break;
+                }
+                Thread.onSpinWait();
+            }
+            return TIMED_OUT;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package chapter5.item31.ex7;
+
+import chapter5.item31.ex1.StackV5;
+
+import java.util.ArrayList;
+import java.util.EmptyStackException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+public class ConcurrentStackBenchmark {
+    //synchronized 로 감싼 StackV5, 소거 없는 Treiber 스택, 소거 배열을 쓰는 스택의 스레드 수별 처리량 비교
+    //스레드마다 push 와 pop 을 번갈아 하므로 top 경합이 가장 심한 상황
+
+    private static final int OPS_PER_THREAD = 200_000;
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+
+    //세 구현을 같은 코드로 측정하기 위한 최소 인터페이스
+    private interface Stack {
+        void push(Integer e);
+
+        Integer pop();
+    }
+
+    private static class SynchronizedStack implements Stack {
+        private final StackV5<Integer> stack = new StackV5<>();
+
+        @Override
+        public synchronized void push(Integer e) {
+            stack.push(e);
+        }
+
+        @Override
+        public synchronized Integer pop() {
+            return stack.pop();
+        }
+    }
+
+    private static class LockFreeStack implements Stack {
+        private final ConcurrentStack<Integer> stack;
+
+        LockFreeStack(int eliminationSlots) {
+            stack = new ConcurrentStack<>(eliminationSlots);
+        }
+
+        @Override
+        public void push(Integer e) {
+            stack.push(e);
+        }
+
+        @Override
+        public Integer pop() {
+            return stack.pop();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("코어 수: " + cores);
+        System.out.println("스레드 수 | synchronized StackV5 | Treiber | Treiber + 소거 (백만 ops/s)");
+        //JIT 워밍업을 위해 한 번 돌린 뒤 측정
+        measure(new SynchronizedStack(), 4);
+        measure(new LockFreeStack(0), 4);
+        measure(new LockFreeStack(cores), 4);
+        for (int threads : THREAD_COUNTS) {
+            System.out.printf("%d | %.1f | %.1f | %.1f%n", threads,
+                    measure(new SynchronizedStack(), threads),
+                    measure(new LockFreeStack(0), threads),
+                    measure(new LockFreeStack(Math.max(1, Math.min(cores, threads / 2))), threads));
+        }
+    }
+
+    private static double measure(Stack stack, int threadCount) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                Integer value = 1_000;
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    if ((i & 1) == 0) {
+                        stack.push(value);
+                    } else {
+                        try {
+                            stack.pop();
+                        } catch (EmptyStackException ignored) {
+                        }
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads)
+            thread.join();
+        long elapsed = System.nanoTime() - begin;
+        return (double) OPS_PER_THREAD * threadCount / elapsed * 1_000;
+    }
+}
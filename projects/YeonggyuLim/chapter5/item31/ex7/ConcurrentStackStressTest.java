@@ -0,0 +1,230 @@
+package chapter5.item31.ex7;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EmptyStackException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class ConcurrentStackStressTest {
+    //여러 스레드가 동시에 push / pop 해도 값이 사라지거나 두 번 나오지 않는지 확인하는 실행 클래스
+    //1. 한 스레드에서는 StackV5 와 같은 LIFO 순서와 빈 스택 예외
+    //2. 스레드마다 겹치지 않는 값을 push 하고 무작위로 pop, 끝나고 남은 값을 모두 꺼내 정확히 한 번씩 나왔는지 검사
+    //3. 끝까지 남은 값은 같은 생산자의 것끼리 나중에 push 한 것이 먼저 나와야 함 (스택 안의 순서가 보존되는지)
+    //4. 선형화 가능성: 작은 기록(스레드 3개 * 연산 5개)을 시작 / 끝 시각과 함께 남기고,
+    //   겹치지 않는 연산의 앞뒤 순서를 지키면서 순차 스택으로 설명되는 순서가 하나라도 있는지 모두 찾아 봄
+
+    private static final int THREADS = 16;
+    private static final int OPS_PER_THREAD = 200_000;
+    private static final int HISTORY_THREADS = 3;
+    private static final int HISTORY_OPS = 5;
+    private static final int HISTORIES = 2_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        sequential(new ConcurrentStack<>());
+        sequential(new ConcurrentStack<>(0));
+        for (int round = 0; round < 5; round++) {
+            conservation(new ConcurrentStack<>(4));
+            conservation(new ConcurrentStack<>(0));
+        }
+        checkerRejectsIllegalHistory();
+        for (int i = 0; i < HISTORIES; i++) {
+            linearizability(new ConcurrentStack<>(1));
+            linearizability(new ConcurrentStack<>(0));
+        }
+        System.out.println("모든 검사 통과");
+    }
+
+    private static void sequential(ConcurrentStack<Integer> stack) {
+        for (int i = 0; i < 1_000; i++)
+            stack.push(i);
+        for (int i = 999; i >= 0; i--)
+            check(stack.pop() == i, "LIFO 순서가 아님");
+        check(stack.isEmpty(), "비어 있어야 함");
+        try {
+            stack.pop();
+            check(false, "빈 스택에서 EmptyStackException 이 나야 함");
+        } catch (EmptyStackException expected) {
+        }
+    }
+
+    private static void conservation(ConcurrentStack<Long> stack) throws InterruptedException {
+        //값 = 스레드 번호 * 2^32 + 그 스레드 안의 순번 (서로 겹치지 않음)
+        long[] pushed = new long[THREADS]; //스레드마다 push 한 개수 (join 이후에 읽음)
+        List<List<Long>> popped = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++)
+            popped.add(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int id = t;
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long next = 0;
+                await(start);
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    if (random.nextBoolean()) {
+                        stack.push(((long) id << 32) | next++);
+                    } else {
+                        try {
+                            popped.get(id).add(stack.pop());
+                        } catch (EmptyStackException ignored) {
+                        }
+                    }
+                }
+                pushed[id] = next;
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads)
+            thread.join();
+
+        List<Long> rest = new ArrayList<>();
+        stack.popAll(rest);
+        check(stack.isEmpty(), "popAll 후 비어 있어야 함");
+
+        //생산자마다 나온 순번을 표시해 빠짐과 중복을 찾음
+        boolean[][] seen = new boolean[THREADS][OPS_PER_THREAD];
+        List<List<Long>> all = new ArrayList<>(popped);
+        all.add(rest);
+        for (List<Long> values : all) {
+            long[] lastSeq = new long[THREADS];
+            Arrays.fill(lastSeq, Long.MAX_VALUE);
+            for (long value : values) {
+                int producer = (int) (value >>> 32);
+                int seq = (int) value;
+                check(!seen[producer][seq], "값이 두 번 나옴: " + producer + "-" + seq);
+                seen[producer][seq] = true;
+                if (values == rest)
+                    check(seq < lastSeq[producer], "남은 값이 LIFO 순서가 아님");
+                lastSeq[producer] = seq;
+            }
+        }
+        for (int p = 0; p < THREADS; p++) {
+            for (int seq = 0; seq < pushed[p]; seq++)
+                check(seen[p][seq], "값이 사라짐: " + p + "-" + seq);
+        }
+    }
+
+    //연산 하나의 기록. pop 의 value 가 null 이면 빈 스택 예외
+    private static final class Op {
+        final boolean push;
+        final Long value;
+        final long invoked;
+        final long responded;
+
+        Op(boolean push, Long value, long invoked, long responded) {
+            this.push = push;
+            this.value = value;
+            this.invoked = invoked;
+            this.responded = responded;
+        }
+    }
+
+    private static void linearizability(ConcurrentStack<Long> stack) throws InterruptedException {
+        List<Op> history = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < HISTORY_THREADS; t++) {
+            long id = t;
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                await(start);
+                for (int i = 0; i < HISTORY_OPS; i++) {
+                    long invoked = System.nanoTime();
+                    if (random.nextBoolean()) {
+                        long value = id * 100 + i;
+                        stack.push(value);
+                        history.add(new Op(true, value, invoked, System.nanoTime()));
+                    } else {
+                        Long value;
+                        try {
+                            value = stack.pop();
+                        } catch (EmptyStackException e) {
+                            value = null;
+                        }
+                        history.add(new Op(false, value, invoked, System.nanoTime()));
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads)
+            thread.join();
+        check(linearizable(history, 0, new ArrayList<>(), new HashSet<>()), "선형화할 수 없는 기록: " + describe(history));
+    }
+
+    //검사기가 늘 참만 내지 않는지 확인: push(1) 이 끝난 뒤 시작한 pop 이 빈 스택을 보는 기록은 거부해야 함
+    private static void checkerRejectsIllegalHistory() {
+        List<Op> history = List.of(new Op(true, 1L, 0, 10), new Op(false, null, 20, 30));
+        check(!linearizable(history, 0, new ArrayList<>(), new HashSet<>()), "검사기가 잘못된 기록을 통과시킴");
+    }
+
+    //done 은 이미 순서를 정한 연산의 비트 집합, model 은 그 순서대로 적용한 순차 스택
+    //아직 안 정한 연산 중 어느 연산의 끝보다도 늦게 시작하지 않은 것만 다음 차례가 될 수 있음 (실시간 순서 보존)
+    private static boolean linearizable(List<Op> history, int done, List<Long> model, Set<String> failed) {
+        if (done == (1 << history.size()) - 1)
+            return true;
+        String state = done + ":" + model;
+        if (failed.contains(state))
+            return false;
+        long earliestResponse = Long.MAX_VALUE;
+        for (int i = 0; i < history.size(); i++) {
+            if ((done & (1 << i)) == 0)
+                earliestResponse = Math.min(earliestResponse, history.get(i).responded);
+        }
+        for (int i = 0; i < history.size(); i++) {
+            Op op = history.get(i);
+            if ((done & (1 << i)) != 0 || op.invoked > earliestResponse)
+                continue;
+            if (op.push) {
+                model.add(op.value);
+                boolean ok = linearizable(history, done | (1 << i), model, failed);
+                model.remove(model.size() - 1);
+                if (ok)
+                    return true;
+            } else if (op.value == null) {
+                if (model.isEmpty() && linearizable(history, done | (1 << i), model, failed))
+                    return true;
+            } else if (!model.isEmpty() && model.get(model.size() - 1).equals(op.value)) {
+                model.remove(model.size() - 1);
+                boolean ok = linearizable(history, done | (1 << i), model, failed);
+                model.add(op.value);
+                if (ok)
+                    return true;
+            }
+        }
+        failed.add(state);
+        return false;
+    }
+
+    private static String describe(List<Op> history) {
+        StringBuilder sb = new StringBuilder();
+        for (Op op : history) {
+            sb.append(String.format("%n  %s(%s) [%d, %d]", op.push ? "push" : "pop", op.value == null ? "빈 스택" : op.value,
+                    op.invoked, op.responded));
+        }
+        return sb.toString();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition)
+            throw new AssertionError(message);
+    }
+}
@@ -0,0 +1,14 @@
+package chapter5.item31.ex8;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public interface ElementCodec<E> {
+    //SpillingStack 이 디스크로 내보낸 원소를 바이트로 쓰고 다시 읽는 방법
+    //decode 는 encode 가 쓴 순서 그대로 읽어야 함
+
+    void encode(E e, DataOutput out) throws IOException;
+
+    E decode(DataInput in) throws IOException;
+}
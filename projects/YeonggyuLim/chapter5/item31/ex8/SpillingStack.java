@@ -0,0 +1,234 @@
+package chapter5.item31.ex8;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EmptyStackException;
+
+public class SpillingStack<E> implements AutoCloseable {
+    //StackV5 와 같은 API 에 메모리 예산을 둔 스택
+    //원소를 고정 크기 세그먼트로 나누고, 메모리에 있는 원소 수가 예산을 넘으면 가장 아래(가장 오래 안 쓸) 세그먼트부터
+    //코덱으로 직렬화해 임시 파일에 씀
+    //세그먼트마다 매핑을 만들면 매핑이 GC 때만 풀려 매핑 수 한도(vm.max_map_count)에 걸리므로 위치 지정 read / write 를 씀
+    //pop 이 그 세그먼트까지 내려오면 파일에서 다시 읽어 옴. 파일도 스택처럼 끝에서만 쓰고 읽으므로 다시 읽은 자리는 재사용
+    //예산은 바이트가 아니라 원소 수로 정함 (원소 크기는 코덱만 알기 때문)
+
+    private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024;
+
+    private final ElementCodec<E> codec;
+    private final int segmentSize;
+    private final long memoryBudget;
+
+    private Object[] current;                                       //맨 위 세그먼트
+    private int index = 0;                                          //current 에 담긴 원소 수
+    private final ArrayDeque<Object[]> inMemory = new ArrayDeque<>(); //current 아래의 가득 찬 세그먼트 (아래가 앞쪽)
+    private long size = 0;
+
+    private final Path file;
+    private final FileChannel channel;
+    private long[] spilledOffsets = new long[16];                   //디스크 세그먼트의 파일 위치 (아래부터)
+    private int spilledSegments = 0;
+    private long writePosition = 0;
+    private final SpillBuffer spillBytes = new SpillBuffer();
+    private final DataOutputStream spillOut = new DataOutputStream(spillBytes);
+    private byte[] reloadBytes = new byte[4 * 1024];
+
+    private long spillCount = 0;
+    private long reloadCount = 0;
+
+    public SpillingStack(ElementCodec<E> codec, long memoryBudget) {
+        this(codec, memoryBudget, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public SpillingStack(ElementCodec<E> codec, long memoryBudget, int segmentSize) {
+        if (segmentSize <= 0)
+            throw new IllegalArgumentException("세그먼트 크기: " + segmentSize);
+        //맨 위 세그먼트와 다시 읽어 온 세그먼트가 함께 있을 수 있어야 함
+        if (memoryBudget < 2L * segmentSize)
+            throw new IllegalArgumentException("메모리 예산은 세그먼트 2개 이상이어야 함: " + memoryBudget);
+        this.codec = codec;
+        this.segmentSize = segmentSize;
+        this.memoryBudget = memoryBudget;
+        this.current = new Object[segmentSize];
+        try {
+            file = Files.createTempFile("spilling-stack", ".bin");
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void push(E e) {
+        if (index == segmentSize) {
+            inMemory.addLast(current);
+            current = new Object[segmentSize];
+            index = 0;
+            //새 세그먼트가 가득 차도 예산을 넘지 않도록 미리 내보냄
+            while (inMemoryElements() + segmentSize > memoryBudget && !inMemory.isEmpty())
+                spill(inMemory.pollFirst());
+        }
+        current[index++] = e;
+        size++;
+    }
+
+    public E pop() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        if (index == 0) {
+            //아래 세그먼트가 메모리에 없으면 파일에서 가장 최근에 내보낸 세그먼트를 읽어 옴
+            current = inMemory.isEmpty() ? reload() : inMemory.pollLast();
+            index = segmentSize;
+        }
+        @SuppressWarnings("unchecked")
+        E result = (E) current[--index];
+        current[index] = null;
+        size--;
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public void pushAll(Iterable<? extends E> src) {
+        for (E e : src) {
+            push(e);
+        }
+    }
+
+    public void popAll(Collection<? super E> dst) {
+        while (!isEmpty()) {
+            dst.add(pop());
+        }
+    }
+
+    //디스크로 내보낸 세그먼트 수 (누적)
+    public long spillCount() {
+        return spillCount;
+    }
+
+    //디스크에서 다시 읽어 온 세그먼트 수 (누적)
+    public long reloadCount() {
+        return reloadCount;
+    }
+
+    public long inMemoryElements() {
+        return (long) inMemory.size() * segmentSize + index;
+    }
+
+    private void spill(Object[] segment) {
+        try {
+            //재사용하는 버퍼에 바로 인코딩하고 그 배열을 그대로 파일 위치에 씀 (매핑을 만들지 않음)
+            spillBytes.reset();
+            for (Object e : segment) {
+                @SuppressWarnings("unchecked")
+                E element = (E) e;
+                codec.encode(element, spillOut);
+            }
+            spillOut.flush();
+            ByteBuffer src = ByteBuffer.wrap(spillBytes.buffer(), 0, spillBytes.size());
+            long position = writePosition;
+            while (src.hasRemaining())
+                position += channel.write(src, position);
+            if (spilledSegments == spilledOffsets.length)
+                spilledOffsets = Arrays.copyOf(spilledOffsets, spilledSegments * 2);
+            spilledOffsets[spilledSegments++] = writePosition;
+            writePosition = position;
+            spillCount++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Object[] reload() {
+        try {
+            long offset = spilledOffsets[--spilledSegments];
+            int length = (int) (writePosition - offset);
+            if (reloadBytes.length < length)
+                reloadBytes = new byte[Math.max(length, reloadBytes.length * 2)];
+            ByteBuffer dst = ByteBuffer.wrap(reloadBytes, 0, length);
+            while (dst.hasRemaining()) {
+                if (channel.read(dst, offset + dst.position()) < 0)
+                    throw new EOFException("세그먼트가 잘림: " + offset);
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(reloadBytes, 0, length));
+            Object[] segment = new Object[segmentSize];
+            for (int i = 0; i < segmentSize; i++)
+                segment[i] = codec.decode(in);
+            writePosition = offset; //읽어 온 자리는 다음 spill 이 덮어씀
+            reloadCount++;
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //내부 배열을 복사 없이 내주는 ByteArrayOutputStream (toByteArray 의 복사를 피함)
+    private static final class SpillBuffer extends ByteArrayOutputStream {
+        SpillBuffer() {
+            super(4 * 1024);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+
+    //임시 파일을 닫으면서 지움
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void main(String[] args) {
+        //깊이 우선 탐색 프레임 흉내: (노드 번호, 다음에 볼 간선 번호) 를 long 하나에 담음
+        ElementCodec<Long> frameCodec = new ElementCodec<>() {
+            @Override
+            public void encode(Long e, DataOutput out) throws IOException {
+                out.writeLong(e);
+            }
+
+            @Override
+            public Long decode(DataInput in) throws IOException {
+                return in.readLong();
+            }
+        };
+
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+        try (SpillingStack<Long> stack = new SpillingStack<>(frameCodec, 1_000_000)) {
+            long start = System.nanoTime();
+            for (long node = 0; node < depth; node++)
+                stack.push(node << 8);
+            long sum = 0;
+            while (!stack.isEmpty())
+                sum += stack.pop() >>> 8;
+            System.out.printf("깊이 %d: %.1fms, spill %d회, reload %d회, 검증 %b%n", depth,
+                    (System.nanoTime() - start) / 1_000_000.0, stack.spillCount(), stack.reloadCount(),
+                    sum == (long) depth * (depth - 1) / 2);
+        }
+    }
+}
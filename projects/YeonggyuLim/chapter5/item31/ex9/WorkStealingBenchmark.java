@@ -0,0 +1,163 @@
+package chapter5.item31.ex9;
+
+import chapter5.item31.ex1.StackV5;
+
+import java.util.EmptyStackException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class WorkStealingBenchmark {
+    //재귀 작업 트리(이진 트리, 잎마다 작은 계산)를 두 스케줄러로 처리하는 시간 비교
+    //- 모든 작업자가 synchronized 로 감싼 StackV5 하나를 같이 쓰는 스케줄러
+    //- 작업자마다 WorkStealingDeque 를 두는 WorkStealingScheduler
+    //fork 마다 공유 스택의 락을 잡아야 하는 쪽은 작업자가 늘수록 락 경합이 커짐
+
+    private static final int DEPTH = 20;          //작업 약 200만 개
+    private static final int LEAF_WORK = 200;
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8};
+
+    //두 스케줄러를 같은 코드로 측정하기 위한 최소 인터페이스
+    private interface Scheduler extends AutoCloseable {
+        void fork(Runnable task);
+
+        void invoke(Runnable root) throws InterruptedException;
+
+        @Override
+        void close();
+    }
+
+    private static class StealingScheduler implements Scheduler {
+        private final WorkStealingScheduler scheduler;
+
+        StealingScheduler(int threads) {
+            scheduler = new WorkStealingScheduler(threads);
+        }
+
+        @Override
+        public void fork(Runnable task) {
+            scheduler.fork(task);
+        }
+
+        @Override
+        public void invoke(Runnable root) throws InterruptedException {
+            scheduler.invoke(root);
+        }
+
+        @Override
+        public void close() {
+            scheduler.close();
+        }
+    }
+
+    //공유 스택 하나에서 모든 작업자가 꺼내 가는 스케줄러
+    private static class LockedStackScheduler implements Scheduler {
+        private final StackV5<Runnable> stack = new StackV5<>();
+        private final AtomicLong pending = new AtomicLong();
+        private final Object done = new Object();
+        private final Thread[] workers;
+        private volatile boolean closed = false;
+
+        LockedStackScheduler(int threads) {
+            workers = new Thread[threads];
+            for (int i = 0; i < threads; i++) {
+                workers[i] = new Thread(this::work);
+                workers[i].setDaemon(true);
+                workers[i].start();
+            }
+        }
+
+        @Override
+        public void fork(Runnable task) {
+            pending.incrementAndGet();
+            synchronized (stack) {
+                stack.push(task);
+            }
+        }
+
+        private void work() {
+            while (!closed) {
+                Runnable task;
+                synchronized (stack) {
+                    try {
+                        task = stack.pop();
+                    } catch (EmptyStackException e) {
+                        task = null;
+                    }
+                }
+                if (task == null) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                task.run();
+                if (pending.decrementAndGet() == 0) {
+                    synchronized (done) {
+                        done.notifyAll();
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void invoke(Runnable root) throws InterruptedException {
+            fork(root);
+            synchronized (done) {
+                while (pending.get() != 0)
+                    done.wait();
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            for (Thread worker : workers) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("코어 수: " + Runtime.getRuntime().availableProcessors());
+        System.out.println("작업자 수 | 공유 StackV5 + 락 (ms) | 작업 훔치기 (ms) | 훔친 작업 수");
+        //JIT 워밍업을 위해 한 번 돌린 뒤 측정
+        measure(new LockedStackScheduler(2));
+        measure(new StealingScheduler(2));
+        for (int threads : THREAD_COUNTS) {
+            double locked = measure(new LockedStackScheduler(threads));
+            StealingScheduler stealing = new StealingScheduler(threads);
+            long steals = stealing.scheduler.stealCount();
+            double stealingMillis = measure(stealing);
+            System.out.printf("%d | %.1f | %.1f | %d%n", threads, locked, stealingMillis,
+                    stealing.scheduler.stealCount() - steals);
+        }
+    }
+
+    private static double measure(Scheduler scheduler) throws InterruptedException {
+        LongAdder leaves = new LongAdder();
+        try (scheduler) {
+            long start = System.nanoTime();
+            scheduler.invoke(() -> node(scheduler, leaves, DEPTH));
+            double millis = (System.nanoTime() - start) / 1_000_000.0;
+            if (leaves.sum() != 1L << DEPTH)
+                throw new AssertionError("잎 작업 수: " + leaves.sum());
+            return millis;
+        }
+    }
+
+    private static void node(Scheduler scheduler, LongAdder leaves, int depth) {
+        if (depth == 0) {
+            long x = depth;
+            for (int i = 0; i < LEAF_WORK; i++)
+                x = x * 31 + i;
+            if (x != 42) //계산이 지워지지 않도록 결과를 씀
+                leaves.increment();
+            return;
+        }
+        scheduler.fork(() -> node(scheduler, leaves, depth - 1));
+        scheduler.fork(() -> node(scheduler, leaves, depth - 1));
+    }
+}
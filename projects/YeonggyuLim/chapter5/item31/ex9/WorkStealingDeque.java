@@ -0,0 +1,121 @@
+package chapter5.item31.ex9;
+
+import java.util.EmptyStackException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class WorkStealingDeque<E> {
+    //Chase-Lev 작업 훔치기 덱
+    //주인 스레드 하나만 bottom 쪽에서 push / pop 하고 (스택처럼 LIFO, 락과 CAS 없음)
+    //다른 스레드는 top 쪽에서 steal 로 가장 오래된 원소를 CAS 한 번으로 가져감 (FIFO)
+    //주인과 도둑이 마지막 원소 하나를 두고 겨룰 때만 주인도 top 에 CAS 를 함
+    //배열은 원형으로 쓰고 가득 차면 두 배로 늘림. 도둑이 예전 배열을 읽고 있어도 그 칸은 덮어쓰지 않으므로 안전
+    //null 은 "원소 없음" 표시로 쓰므로 push 할 수 없음
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    private final AtomicLong top = new AtomicLong();            //다음에 훔칠 위치 (도둑끼리 CAS 로 올림)
+    private volatile long bottom = 0;                           //다음에 push 할 위치 (주인만 씀)
+    private volatile AtomicReferenceArray<E> array;
+
+    public WorkStealingDeque() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public WorkStealingDeque(int initialCapacity) {
+        if (initialCapacity <= 0)
+            throw new IllegalArgumentException("초기 용량: " + initialCapacity);
+        //인덱스를 & 로 접기 위해 2의 거듭제곱으로 맞춤
+        array = new AtomicReferenceArray<>(Integer.highestOneBit(initialCapacity - 1 | 1) << 1);
+    }
+
+    //주인 스레드만 호출
+    public void push(E e) {
+        if (e == null)
+            throw new NullPointerException();
+        long b = bottom;
+        long t = top.get();
+        AtomicReferenceArray<E> a = array;
+        if (b - t >= a.length()) {
+            a = grow(a, t, b);
+        }
+        a.set((int) b & (a.length() - 1), e);
+        bottom = b + 1; //volatile 쓰기로 원소를 도둑에게 공개
+    }
+
+    //주인 스레드만 호출. 비어 있으면 EmptyStackException
+    public E pop() {
+        E result = poll();
+        if (result == null) {
+            throw new EmptyStackException();
+        }
+        return result;
+    }
+
+    //주인 스레드만 호출. 비어 있으면 null
+    public E poll() {
+        long b = bottom - 1;
+        AtomicReferenceArray<E> a = array;
+        bottom = b; //먼저 bottom 을 내려 도둑이 이 칸을 넘보지 못하게 한 뒤 top 을 읽음
+        long t = top.get();
+        if (t > b) {
+            bottom = b + 1; //비어 있었음
+            return null;
+        }
+        int index = (int) b & (a.length() - 1);
+        E result = a.get(index);
+        if (t == b) {
+            //마지막 원소: 도둑과 top 을 두고 겨룸
+            if (!top.compareAndSet(t, t + 1))
+                result = null;
+            bottom = b + 1;
+        }
+        if (result != null)
+            a.set(index, null); //다 쓴 참조 해제 (이 칸을 노리던 도둑은 top CAS 에 실패하므로 값을 버림)
+        return result;
+    }
+
+    //아무 스레드나 호출. 가장 오래된 원소를 가져가며, 비어 있거나 다른 스레드에 져서 못 가져가면 null
+    public E steal() {
+        long t = top.get();
+        long b = bottom;
+        if (t >= b)
+            return null;
+        AtomicReferenceArray<E> a = array;
+        E result = a.get((int) t & (a.length() - 1));
+        if (result == null || !top.compareAndSet(t, t + 1))
+            return null;
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return bottom <= top.get();
+    }
+
+    //동시에 바뀌는 중이면 근삿값
+    public int size() {
+        return (int) Math.max(0, bottom - top.get());
+    }
+
+    private AtomicReferenceArray<E> grow(AtomicReferenceArray<E> old, long t, long b) {
+        AtomicReferenceArray<E> a = new AtomicReferenceArray<>(old.length() * 2);
+        for (long i = t; i < b; i++)
+            a.set((int) i & (a.length() - 1), old.get((int) i & (old.length() - 1)));
+        array = a;
+        return a;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        WorkStealingDeque<Integer> deque = new WorkStealingDeque<>();
+        for (int i = 1; i <= 5; i++)
+            deque.push(i);
+
+        Thread thief = new Thread(() -> System.out.println("훔침: " + deque.steal())); //가장 오래된 1
+        thief.start();
+        thief.join();
+
+        Integer e;
+        while ((e = deque.poll()) != null)
+            System.out.println("주인 pop: " + e); //5, 4, 3, 2
+    }
+}
@@ -0,0 +1,238 @@
+package chapter5.item31.ex9;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+public class WorkStealingScheduler implements AutoCloseable {
+    //작업자마다 WorkStealingDeque 를 하나씩 두는 작은 fork/join 스케줄러
+    //작업 안에서 fork 한 작업은 자기 덱에 push 하고 자기 덱에서 pop (최근 작업부터 처리해 캐시에 유리)
+    //자기 덱이 비면 임의의 다른 작업자 덱에서 steal (오래된 작업은 보통 큰 하위 트리라 한 번 훔치면 오래 일함)
+    //invoke 는 루트 작업과 그 작업이 fork 한 모든 작업이 끝날 때까지 기다림
+    //작업마다 자기가 속한 Job(invoke 한 번)을 들고 다니므로 invoke 끼리 서로를 기다리지 않음
+    //작업 안에서 invoke 하면 잠들지 않고 그 Job 이 끝날 때까지 다른 작업을 대신 처리함 (작업자가 모두 막히지 않도록)
+
+    private final Worker[] workers;
+    private final ConcurrentLinkedQueue<Task> submissions = new ConcurrentLinkedQueue<>(); //작업자 밖에서 들어온 작업
+    private final LongAdder steals = new LongAdder();
+    private volatile boolean closed = false;
+
+    //invoke 한 번의 루트와 그 하위 작업들의 완료 상태
+    private static final class Job {
+        final AtomicLong pending = new AtomicLong(); //아직 끝나지 않은 작업 수
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+    }
+
+    private static final class Task {
+        final Runnable body;
+        final Job job;
+
+        Task(Runnable body, Job job) {
+            this.body = body;
+            this.job = job;
+        }
+    }
+
+    public WorkStealingScheduler() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public WorkStealingScheduler(int parallelism) {
+        if (parallelism <= 0)
+            throw new IllegalArgumentException("작업자 수: " + parallelism);
+        workers = new Worker[parallelism];
+        for (int i = 0; i < parallelism; i++)
+            workers[i] = new Worker(i);
+        for (Worker worker : workers)
+            worker.start();
+    }
+
+    //작업 안에서 호출하면 현재 작업의 Job 에 붙여 현재 작업자 덱에 넣음
+    //밖에서 호출하면 아무도 기다리지 않는 새 Job 으로 제출 큐에 넣음
+    public void fork(Runnable task) {
+        if (closed)
+            throw new IllegalStateException("이미 닫힌 스케줄러");
+        Worker worker = currentWorker();
+        if (worker != null && worker.currentJob != null) {
+            worker.currentJob.pending.incrementAndGet();
+            worker.deque.push(new Task(task, worker.currentJob));
+        } else {
+            Job job = new Job();
+            job.pending.incrementAndGet();
+            submit(new Task(task, job));
+        }
+    }
+
+    //root 와 그 하위 작업이 모두 끝날 때까지 기다림. 그 작업들이 던진 첫 예외를 다시 던짐
+    public void invoke(Runnable root) throws InterruptedException {
+        if (closed)
+            throw new IllegalStateException("이미 닫힌 스케줄러");
+        Job job = new Job();
+        job.pending.incrementAndGet();
+        Task task = new Task(root, job);
+        Worker worker = currentWorker();
+        if (worker != null) {
+            worker.deque.push(task);
+            worker.helpUntilDone(job);
+        } else {
+            submit(task);
+            synchronized (job) {
+                while (job.pending.get() != 0)
+                    job.wait();
+            }
+        }
+        Throwable t = job.failure.get();
+        if (t != null)
+            throw new RuntimeException("작업 실패", t);
+    }
+
+    private void submit(Task task) {
+        submissions.add(task);
+        for (Worker worker : workers)
+            LockSupport.unpark(worker);
+    }
+
+    //이 스케줄러의 작업자 스레드에서 호출했으면 그 작업자, 아니면 null
+    private Worker currentWorker() {
+        Thread current = Thread.currentThread();
+        if (current instanceof Worker && ((Worker) current).owner() == this)
+            return (Worker) current;
+        return null;
+    }
+
+    //다른 작업자의 덱에서 훔쳐 온 작업 수 (누적)
+    public long stealCount() {
+        return steals.sum();
+    }
+
+    public int parallelism() {
+        return workers.length;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (Worker worker : workers)
+            LockSupport.unpark(worker);
+        for (Worker worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private final class Worker extends Thread {
+        final WorkStealingDeque<Task> deque = new WorkStealingDeque<>();
+        private final int index;
+        Job currentJob; //지금 실행 중인 작업의 Job (fork 가 붙일 곳)
+
+        Worker(int index) {
+            super("work-stealing-worker-" + index);
+            this.index = index;
+            setDaemon(true);
+        }
+
+        WorkStealingScheduler owner() {
+            return WorkStealingScheduler.this;
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            while (!closed) {
+                Task task = findTask();
+                if (task != null) {
+                    idle = 0;
+                    runTask(task);
+                } else if (++idle < 64) {
+                    Thread.onSpinWait();
+                } else {
+                    //한동안 일이 없으면 잠깐 잠듦 (제출 큐에 넣을 때 깨움)
+                    LockSupport.parkNanos(50_000);
+                }
+            }
+        }
+
+        //작업 안에서 invoke 했을 때: job 이 끝날 때까지 다른 작업을 처리하며 기다림
+        void helpUntilDone(Job job) {
+            while (job.pending.get() != 0) {
+                Task task = findTask();
+                if (task != null)
+                    runTask(task);
+                else
+                    Thread.onSpinWait();
+            }
+        }
+
+        private Task findTask() {
+            Task task = deque.poll();
+            if (task == null)
+                task = submissions.poll();
+            if (task == null)
+                task = stealFromOthers();
+            return task;
+        }
+
+        private void runTask(Task task) {
+            Job saved = currentJob; //invoke 안에서 다른 Job 의 작업을 처리할 수 있으므로 되돌려 둠
+            currentJob = task.job;
+            try {
+                task.body.run();
+            } catch (Throwable t) {
+                task.job.failure.compareAndSet(null, t);
+            } finally {
+                currentJob = saved;
+                if (task.job.pending.decrementAndGet() == 0) {
+                    synchronized (task.job) {
+                        task.job.notifyAll();
+                    }
+                }
+            }
+        }
+
+        //임의의 작업자부터 한 바퀴 돌며 훔침
+        private Task stealFromOthers() {
+            int n = workers.length;
+            int start = ThreadLocalRandom.current().nextInt(n);
+            for (int i = 0; i < n; i++) {
+                int victim = (start + i) % n;
+                if (victim == index)
+                    continue;
+                Task task = workers[victim].deque.steal();
+                if (task != null) {
+                    steals.increment();
+                    return task;
+                }
+            }
+            return null;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        //1..n 의 합을 구간을 반씩 나누는 작업 트리로 계산
+        LongAdder sum = new LongAdder();
+        try (WorkStealingScheduler scheduler = new WorkStealingScheduler(4)) {
+            scheduler.invoke(() -> split(scheduler, sum, 1, 10_000_000));
+            System.out.println("합: " + sum.sum() + ", 훔친 작업 수: " + scheduler.stealCount());
+        }
+    }
+
+    private static void split(WorkStealingScheduler scheduler, LongAdder sum, long from, long to) {
+        if (to - from < 10_000) {
+            long s = 0;
+            for (long i = from; i <= to; i++)
+                s += i;
+            sum.add(s);
+            return;
+        }
+        long mid = (from + to) >>> 1;
+        scheduler.fork(() -> split(scheduler, sum, mid + 1, to));
+        split(scheduler, sum, from, mid);
+    }
+}